@@ -0,0 +1,18 @@
+package com.hellogreenfriends.backend.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记只读方法：同一方法、相同参数的并发调用共享一次正在进行的计算
+ * 只能用于结果与当前用户无关、且返回值不会被调用方修改的方法，
+ * 参数需要正确实现 equals 和 hashCode（数组按内容比较）。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
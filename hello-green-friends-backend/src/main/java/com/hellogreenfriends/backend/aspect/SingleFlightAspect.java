@@ -0,0 +1,128 @@
+package com.hellogreenfriends.backend.aspect;
+
+import com.hellogreenfriends.backend.dto.InFlightCallDTO;
+import com.hellogreenfriends.backend.dto.SingleFlightStatsDTO;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 合并 @SingleFlight 方法的并发相同调用
+ * 第一个调用者执行方法，执行期间到达的相同调用（方法和参数都相同）等待并直接返回同一个结果或异常，
+ * 执行结束后立即移除，之后的调用会重新执行，因此这里不缓存任何结果。
+ * 等待超过 app.single-flight.wait-timeout-ms 仍未得到结果时，等待者不再等待，自己执行一次方法。
+ * 优先级最高，位于事务拦截器之外，等待者不会占用数据库连接。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+    private final Map<CallKey, Call> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, MethodStats> statsByMethod = new ConcurrentHashMap<>();
+    private final long waitTimeoutMs;
+
+    public SingleFlightAspect(@Value("${app.single-flight.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Around("@annotation(com.hellogreenfriends.backend.aspect.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().toShortString();
+        MethodStats stats = statsByMethod.computeIfAbsent(method, key -> new MethodStats());
+        CallKey key = new CallKey(method, joinPoint.getArgs().clone());
+
+        Call call = new Call();
+        Call existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            existing.waiters.incrementAndGet();
+            try {
+                Object result = existing.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+                stats.coalesced.increment();
+                return result;
+            } catch (ExecutionException ex) {
+                stats.coalesced.increment();
+                throw ex.getCause();
+            } catch (TimeoutException ex) {
+                // 领头的调用卡住时不再等待，直接执行，结果不与其他调用共享
+                stats.timedOut.increment();
+            } finally {
+                existing.waiters.decrementAndGet();
+            }
+            stats.executions.increment();
+            return joinPoint.proceed();
+        }
+
+        stats.executions.increment();
+        try {
+            Object result = joinPoint.proceed();
+            call.result.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            call.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * 各方法的执行、合并和等待超时次数，以及当前正在执行的调用
+     */
+    public List<SingleFlightStatsDTO> getStats() {
+        long now = System.nanoTime();
+        Map<String, List<InFlightCallDTO>> callsByMethod = new ConcurrentHashMap<>();
+        inFlight.forEach((key, call) -> callsByMethod
+                .computeIfAbsent(key.method(), method -> new ArrayList<>())
+                .add(new InFlightCallDTO(Arrays.deepToString(key.args()), call.waiters.get(),
+                        (now - call.startedAt) / 1_000_000)));
+        List<SingleFlightStatsDTO> result = new ArrayList<>();
+        statsByMethod.forEach((method, stats) -> result.add(new SingleFlightStatsDTO(method,
+                stats.executions.sum(), stats.coalesced.sum(), stats.timedOut.sum(), callsByMethod.getOrDefault(method, List.of()))));
+        result.sort(Comparator.comparing(SingleFlightStatsDTO::getMethod));
+        return result;
+    }
+
+    private static final class Call {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final long startedAt = System.nanoTime();
+    }
+
+    private static final class MethodStats {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+    }
+
+    // 参数按内容比较，数组参数（如视口坐标）也能正确合并
+    private record CallKey(String method, Object[] args) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CallKey other && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + Arrays.deepHashCode(args);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hellogreenfriends.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 异步任务配置
+ * 内存索引的全量重建（如批量导入植物之后）在单线程的专用线程池中依次执行，
+ * 不占用发起请求的线程，也不使用该请求的持久化上下文。
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String INDEX_REBUILD_EXECUTOR = "indexRebuildExecutor";
+
+    @Bean(name = INDEX_REBUILD_EXECUTOR)
+    public ThreadPoolTaskExecutor indexRebuildExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("index-rebuild-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hellogreenfriends.backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate JDBC 批量写入配置
+ * 插入和更新按实体类型排序后分批执行，同一类型的多条语句只准备一次。
+ * 使用 IDENTITY 主键的实体仍然逐条插入；植物、地点和植物地点关联使用池化序列，可以批量插入。
+ */
+@Configuration
+public class JdbcBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchProperties(@Value("${app.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package com.hellogreenfriends.backend.config;
+
+import com.hellogreenfriends.backend.dto.CacheStatsDTO;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate 二级缓存的进程内实现
+ * 每个区域是一个按访问顺序淘汰的有界 Map，条目写入后超过 TTL 即失效。
+ * 区域的容量和 TTL 由 SecondLevelCacheConfig 按区域名配置，未单独配置的区域使用默认值。
+ * 更新时间戳区域记录各表最后修改的时间，查询缓存依赖它判断结果是否过期，因此不设上限也不过期。
+ */
+public class LocalCacheRegionFactory extends RegionFactoryTemplate {
+
+    /**
+     * 单个区域的配置
+     * @param maxEntries 最多保存的条目数
+     * @param ttl 条目写入后的有效期
+     */
+    public record RegionSettings(int maxEntries, Duration ttl) {
+    }
+
+    private final RegionSettings defaultSettings;
+    private final Map<String, RegionSettings> regionSettings;
+    private final Map<String, LocalStorageAccess> storages = new ConcurrentHashMap<>();
+
+    public LocalCacheRegionFactory(RegionSettings defaultSettings, Map<String, RegionSettings> regionSettings) {
+        this.defaultSettings = defaultSettings;
+        this.regionSettings = Map.copyOf(regionSettings);
+    }
+
+    /**
+     * 各区域的命中、未命中和淘汰统计，条目数即区域大小
+     */
+    public List<CacheStatsDTO> getStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        storages.values().stream()
+                .sorted((a, b) -> a.name.compareTo(b.name))
+                .forEach(storage -> stats.add(storage.stats()));
+        return stats;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(LocalStorageAccess::release);
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                   DomainDataRegionBuildingContext buildingContext) {
+        return register(regionConfig.getRegionName(), settingsFor(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, settingsFor(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, new RegionSettings(Integer.MAX_VALUE, Duration.ZERO));
+    }
+
+    private RegionSettings settingsFor(String regionName) {
+        return regionSettings.getOrDefault(regionName, defaultSettings);
+    }
+
+    private LocalStorageAccess register(String regionName, RegionSettings settings) {
+        LocalStorageAccess storage = new LocalStorageAccess(regionName, settings);
+        storages.put(regionName, storage);
+        return storage;
+    }
+
+    /**
+     * 单个区域的存储，所有操作在对象锁内完成
+     */
+    private static final class LocalStorageAccess implements DomainDataStorageAccess {
+
+        private final String name;
+        private final int maxEntries;
+        // 0 表示永不过期
+        private final long ttlNanos;
+        private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+
+        private LocalStorageAccess(String name, RegionSettings settings) {
+            this.name = name;
+            this.maxEntries = settings.maxEntries();
+            this.ttlNanos = settings.ttl().toNanos();
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Entry entry = entries.get(key);
+            if (entry == null || isExpired(entry)) {
+                if (entry != null) {
+                    entries.remove(key);
+                }
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            return entry.value();
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+            entries.put(key, new Entry(value, expiresAt));
+            if (entries.size() > maxEntries) {
+                Iterator<Entry> eldest = entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+
+        @Override
+        public synchronized boolean contains(Object key) {
+            Entry entry = entries.get(key);
+            return entry != null && !isExpired(entry);
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entries.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public void release() {
+            evictData();
+        }
+
+        private synchronized CacheStatsDTO stats() {
+            long requests = hitCount + missCount;
+            double hitRate = requests == 0 ? 0 : (double) hitCount / requests;
+            return new CacheStatsDTO("l2:" + name, hitCount, missCount, hitRate, evictionCount,
+                    entries.size(), entries.size(), maxEntries, "entries");
+        }
+
+        private boolean isExpired(Entry entry) {
+            return entry.expiresAt() != 0 && System.nanoTime() - entry.expiresAt() > 0;
+        }
+
+        private record Entry(Object value, long expiresAt) {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.hellogreenfriends.backend.config;
+
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Hibernate 二级缓存和查询缓存配置
+ * 缓存 Tag、Location、User 三类参考数据，分别使用 tags、locations、users 区域。
+ * 标签和地点只会新增，TTL 较长；用户可能被封禁或修改资料，TTL 较短，且读写策略保证本进程内的修改立即生效。
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String TAGS_REGION = "tags";
+    public static final String LOCATIONS_REGION = "locations";
+    public static final String USERS_REGION = "users";
+
+    @Bean
+    public LocalCacheRegionFactory localCacheRegionFactory(
+            @Value("${app.cache.l2.default.max-entries:1000}") int defaultMaxEntries,
+            @Value("${app.cache.l2.default.ttl:10m}") Duration defaultTtl,
+            @Value("${app.cache.l2.tags.max-entries:1000}") int tagsMaxEntries,
+            @Value("${app.cache.l2.tags.ttl:1h}") Duration tagsTtl,
+            @Value("${app.cache.l2.locations.max-entries:5000}") int locationsMaxEntries,
+            @Value("${app.cache.l2.locations.ttl:1h}") Duration locationsTtl,
+            @Value("${app.cache.l2.users.max-entries:5000}") int usersMaxEntries,
+            @Value("${app.cache.l2.users.ttl:10m}") Duration usersTtl,
+            @Value("${app.cache.l2.query-results.max-entries:2000}") int queryMaxEntries,
+            @Value("${app.cache.l2.query-results.ttl:10m}") Duration queryTtl) {
+        return new LocalCacheRegionFactory(
+                new LocalCacheRegionFactory.RegionSettings(defaultMaxEntries, defaultTtl),
+                Map.of(
+                        TAGS_REGION, new LocalCacheRegionFactory.RegionSettings(tagsMaxEntries, tagsTtl),
+                        LOCATIONS_REGION, new LocalCacheRegionFactory.RegionSettings(locationsMaxEntries, locationsTtl),
+                        USERS_REGION, new LocalCacheRegionFactory.RegionSettings(usersMaxEntries, usersTtl),
+                        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                        new LocalCacheRegionFactory.RegionSettings(queryMaxEntries, queryTtl)));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(
+            LocalCacheRegionFactory regionFactory,
+            @Value("${app.cache.l2.statistics:true}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            // 查询缓存只保存结果的ID，实体状态统一从实体区域读取，更新实体时只需淘汰一处
+            properties.put(AvailableSettings.QUERY_CACHE_LAYOUT, CacheLayout.SHALLOW);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            // 统计开启时 Hibernate 默认会在每个会话结束时打印一条指标日志，这里关闭
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.hellogreenfriends.backend.config;
 
+import com.hellogreenfriends.backend.security.BoundedPasswordEncoder;
 import com.hellogreenfriends.backend.security.JwtAuthenticationFilter;
+import com.hellogreenfriends.backend.security.PasswordHashingExecutor;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,9 +39,10 @@ public class SecurityConfig {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
 
+    // BCrypt 计算在专用的有界线程池中执行，不占用请求线程的 CPU
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
     }
 
     @Bean
@@ -99,6 +102,8 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         // 允许所有请求头
         configuration.setAllowedHeaders(List.of("*"));
+        // 允许前端读取缓存校验和地图版本相关的响应头
+        configuration.setExposedHeaders(List.of("ETag", "X-Map-Version"));
         // 允许凭证（如 Cookies），虽然我们用的是 JWT，但最好加上
         configuration.setAllowCredentials(true);
         // 对所有路径应用此CORS 配置
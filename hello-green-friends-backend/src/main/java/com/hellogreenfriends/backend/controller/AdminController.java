@@ -1,19 +1,37 @@
 package com.hellogreenfriends.backend.controller;
 
 import com.hellogreenfriends.backend.dto.ApiResponse;
-import com.hellogreenfriends.backend.dto.PlantDTO;
+import com.hellogreenfriends.backend.aspect.SingleFlightAspect;
+import com.hellogreenfriends.backend.config.LocalCacheRegionFactory;
+import com.hellogreenfriends.backend.dto.CacheStatsDTO;
+import com.hellogreenfriends.backend.dto.PasswordHashingStatsDTO;
+import com.hellogreenfriends.backend.dto.PlantImportResultDTO;
 import com.hellogreenfriends.backend.dto.PlantStatusUpdateDTO;
+import com.hellogreenfriends.backend.dto.PlantSummaryDTO;
 import com.hellogreenfriends.backend.entity.Plant;
 import com.hellogreenfriends.backend.mapper.EntityMapper;
+import com.hellogreenfriends.backend.security.CurrentUser;
+import com.hellogreenfriends.backend.security.JwtUserPrincipal;
+import com.hellogreenfriends.backend.security.LoginRateLimiter;
+import com.hellogreenfriends.backend.security.PasswordHashingExecutor;
+import com.hellogreenfriends.backend.service.PlantDetailCacheService;
+import com.hellogreenfriends.backend.service.PlantImportService;
 import com.hellogreenfriends.backend.service.PlantService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.hellogreenfriends.backend.dto.PagedResponseDTO;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = "*")
@@ -22,10 +40,28 @@ public class AdminController {
     @Autowired
     private PlantService plantService;
 
+    @Autowired
+    private PlantDetailCacheService plantDetailCacheService;
+
+    @Autowired
+    private LocalCacheRegionFactory localCacheRegionFactory;
+
+    @Autowired
+    private SingleFlightAspect singleFlightAspect;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private PlantImportService plantImportService;
+
     @GetMapping("/plants/pending")
     public ResponseEntity<ApiResponse> getPendingPlants(Pageable pageable) {
-        Page<PlantDTO> dtoPage = plantService.getPendingPlants(pageable);
-        PagedResponseDTO<PlantDTO> response = new PagedResponseDTO<>(
+        Page<PlantSummaryDTO> dtoPage = plantService.getPendingPlants(pageable);
+        PagedResponseDTO<PlantSummaryDTO> response = new PagedResponseDTO<>(
                 dtoPage.getContent(),
                 dtoPage.getNumber(),
                 dtoPage.getTotalPages(),
@@ -41,4 +77,47 @@ public class AdminController {
         Plant reviewedPlant = plantService.reviewPlant(id, dto);
         return ResponseEntity.ok(ApiResponse.success(EntityMapper.toPlantDTO(reviewedPlant)));
     }
-}
\ No newline at end of file
+
+    /**
+     * 查看内存缓存的命中、未命中和淘汰统计，包括植物详情缓存和 Hibernate 二级缓存各区域
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<ApiResponse> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        stats.add(plantDetailCacheService.getStats());
+        stats.addAll(localCacheRegionFactory.getStats());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    /**
+     * 查看只读接口的请求合并统计，包括当前正在执行的调用及其等待者数量
+     */
+    @GetMapping("/single-flight")
+    public ResponseEntity<ApiResponse> getSingleFlightStats() {
+        return ResponseEntity.ok(ApiResponse.success(singleFlightAspect.getStats()));
+    }
+
+    /**
+     * 查看密码哈希线程池的排队长度、耗时和拒绝次数，以及登录限流次数
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<ApiResponse> getPasswordHashingStats() {
+        PasswordHashingStatsDTO stats = passwordHashingExecutor.getStats();
+        stats.setRateLimitedLogins(loginRateLimiter.getRejectedCount());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    /**
+     * 批量导入植物，请求体为 NDJSON（application/x-ndjson）或带表头的 CSV（text/csv），边读边写入，
+     * 返回导入数量和出错的行
+     */
+    @PostMapping(value = "/plants/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse> importPlants(HttpServletRequest request,
+                                                    @CurrentUser JwtUserPrincipal currentUser) throws IOException {
+        PlantImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? PlantImportService.Format.CSV : PlantImportService.Format.NDJSON;
+        PlantImportResultDTO result = plantImportService.importPlants(request.getInputStream(), format, currentUser.id());
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+}
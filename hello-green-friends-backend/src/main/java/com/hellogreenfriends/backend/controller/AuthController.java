@@ -6,7 +6,9 @@ import com.hellogreenfriends.backend.dto.LoginRequestDTO;
 
 import com.hellogreenfriends.backend.dto.UserRegistrationDTO;
 import com.hellogreenfriends.backend.security.JwtTokenProvider;
+import com.hellogreenfriends.backend.security.LoginRateLimiter;
 import com.hellogreenfriends.backend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -29,8 +31,14 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse> authenticateUser(@RequestBody LoginRequestDTO loginRequest) {
+    public ResponseEntity<ApiResponse> authenticateUser(@RequestBody LoginRequestDTO loginRequest,
+                                                        HttpServletRequest request) {
+        // 先按用户名和 IP 限流，再提交密码校验
+        loginRateLimiter.acquire(loginRequest.getUsername(), request.getRemoteAddr());
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(),
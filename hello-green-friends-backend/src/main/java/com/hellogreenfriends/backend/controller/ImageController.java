@@ -3,17 +3,19 @@ package com.hellogreenfriends.backend.controller;
 import com.hellogreenfriends.backend.dto.ApiResponse;
 import com.hellogreenfriends.backend.dto.ImageDTO;
 import com.hellogreenfriends.backend.entity.Image;
-import com.hellogreenfriends.backend.entity.User;
 import com.hellogreenfriends.backend.mapper.EntityMapper;
+import com.hellogreenfriends.backend.security.CurrentUser;
+import com.hellogreenfriends.backend.security.JwtUserPrincipal;
 import com.hellogreenfriends.backend.service.ImageService;
-import com.hellogreenfriends.backend.service.UserService;
+import com.hellogreenfriends.backend.util.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,16 +27,12 @@ public class ImageController {
     @Autowired
     private ImageService imageService;
 
-    @Autowired
-    private UserService userService;
-
     @PostMapping("/plants/{plantId}/images")
     public ResponseEntity<ApiResponse> uploadImage(
             @PathVariable Integer plantId,
             @RequestParam("file") MultipartFile file,
-            Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        Image savedImage = imageService.storeFile(file, plantId, currentUser);
+            @CurrentUser JwtUserPrincipal currentUser) {
+        Image savedImage = imageService.storeFile(file, plantId, currentUser.id());
         return ResponseEntity.ok(ApiResponse.success(EntityMapper.toImageDTO(savedImage)));
     }
 
@@ -42,36 +40,29 @@ public class ImageController {
     public ResponseEntity<ApiResponse> addAdditionalImage(
             @PathVariable Integer plantId,
             @RequestParam("file") MultipartFile file,
-            Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        Image newImage = imageService.addPlantImage(plantId, currentUser, file);
+            @CurrentUser JwtUserPrincipal currentUser) {
+        Image newImage = imageService.addPlantImage(plantId, currentUser.id(), file);
         return ResponseEntity.ok(ApiResponse.success(EntityMapper.toImageDTO(newImage)));
     }
 
     @GetMapping("/plants/{plantId}/images")
-    public ResponseEntity<ApiResponse> getImages(@PathVariable Integer plantId) {
+    public ResponseEntity<ApiResponse> getImages(@PathVariable Integer plantId, WebRequest webRequest) {
+        // 图片列表未变化时直接返回 304，不加载图片实体
+        ResourceVersion version = imageService.getImagesVersion(plantId);
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
         List<Image> images = imageService.getImagesByPlantId(plantId);
         List<ImageDTO> imageDTOs = images.stream()
                                         .map(EntityMapper::toImageDTO)
                                         .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success(imageDTOs));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiResponse.success(imageDTOs));
     }
 
     @DeleteMapping("/images/{imageId}")
-    public ResponseEntity<ApiResponse> deleteImage(@PathVariable Integer imageId, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        imageService.deleteImage(imageId, currentUser.getId());
+    public ResponseEntity<ApiResponse> deleteImage(@PathVariable Integer imageId, @CurrentUser JwtUserPrincipal currentUser) {
+        imageService.deleteImage(imageId, currentUser.id(), currentUser.role());
         return ResponseEntity.ok(ApiResponse.success("Image deleted successfully."));
     }
 
-    private User getCurrentUser(Principal principal) {
-        if (principal == null) {
-            throw new SecurityException("Authentication is required to perform this action.");
-        }
-        try {
-            return userService.findUserByUsername(principal.getName());
-        } catch (UsernameNotFoundException e) {
-            throw new SecurityException("User not found, authentication failed.");
-        }
-    }
 }
\ No newline at end of file
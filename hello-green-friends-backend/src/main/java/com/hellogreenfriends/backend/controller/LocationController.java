@@ -1,21 +1,40 @@
 package com.hellogreenfriends.backend.controller;
 
-import com.hellogreenfriends.backend.dto.ApiResponse;
 import com.hellogreenfriends.backend.service.LocationService;
+import com.hellogreenfriends.backend.util.JsonListSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/locations")
 @CrossOrigin(origins = "*")
 public class LocationController {
 
+    // 区域名称很少变化，允许客户端缓存一分钟，之后再用 ETag 重新验证
+    private static final CacheControl AREAS_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     @Autowired
     private LocationService locationService;
 
+    /**
+     * 直接返回快照中序列化好的响应体
+     */
     @GetMapping("/areas")
-    public ResponseEntity<ApiResponse> getDistinctAreaNames() { // 
-        return ResponseEntity.ok(ApiResponse.success(locationService.getDistinctAreaNames()));
+    public ResponseEntity<byte[]> getDistinctAreaNames(WebRequest webRequest) {
+        JsonListSnapshot<String> snapshot = locationService.getAreaNamesSnapshot();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(AREAS_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(AREAS_CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
     }
-}
\ No newline at end of file
+}
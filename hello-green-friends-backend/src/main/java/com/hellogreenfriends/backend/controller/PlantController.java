@@ -1,19 +1,29 @@
 package com.hellogreenfriends.backend.controller;
 
 import com.hellogreenfriends.backend.dto.ApiResponse;
+import com.hellogreenfriends.backend.dto.CursorPageDTO;
 import com.hellogreenfriends.backend.dto.PlantCreateDTO;
 import com.hellogreenfriends.backend.dto.PlantDTO;
+import com.hellogreenfriends.backend.dto.PlantFilterDTO;
+import com.hellogreenfriends.backend.dto.PlantMapDeltaDTO;
+import com.hellogreenfriends.backend.dto.PlantMapTileDTO;
+import com.hellogreenfriends.backend.dto.PlantSummaryDTO;
 import com.hellogreenfriends.backend.entity.Plant;
-import com.hellogreenfriends.backend.entity.User;
 import com.hellogreenfriends.backend.mapper.EntityMapper;
+import com.hellogreenfriends.backend.security.CurrentUser;
+import com.hellogreenfriends.backend.security.JwtUserPrincipal;
+import com.hellogreenfriends.backend.service.PlantMapIndexService;
 import com.hellogreenfriends.backend.service.PlantService;
-import com.hellogreenfriends.backend.service.UserService;
+import com.hellogreenfriends.backend.util.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
-import java.security.Principal;
+import org.springframework.web.context.request.WebRequest;
+import java.time.Duration;
+import java.util.List;
 import com.hellogreenfriends.backend.dto.PagedResponseDTO;
 
 import org.springframework.web.multipart.MultipartFile;
@@ -25,19 +35,33 @@ import org.springframework.data.domain.Page;
 @CrossOrigin(origins = "*")
 public class PlantController {
 
+    private static final String MAP_VERSION_HEADER = "X-Map-Version";
+
     @Autowired
     private PlantService plantService;
-    @Autowired
-    private UserService userService;
 
+    /**
+     * 获取已发布的植物列表
+     * 默认为页码分页；传入 after 参数（第一页传空值 ?after=）时切换为游标分页，
+     * 返回 nextCursor 而不返回总页数，从而省去 COUNT 查询
+     * tagId 和 areaName 可重复传入（如 ?tagId=1&tagId=3），tagMatch=all 时要求同时包含所有标签
+     */
     @GetMapping("/plants")
     public ResponseEntity<ApiResponse> getPublishedPlants(
-            @RequestParam(required = false) Integer tagId,
+            @RequestParam(required = false) List<Integer> tagId,
+            @RequestParam(defaultValue = "any") String tagMatch,
             @RequestParam(required = false) String period,
-            @RequestParam(required = false) String areaName,
+            @RequestParam(required = false) List<String> areaName,
+            @RequestParam(required = false) String after,
             Pageable pageable) {
-        Page<PlantDTO> plantDtoPage = plantService.getPublishedPlants(tagId, period, areaName, pageable);
-        PagedResponseDTO<PlantDTO> response = new PagedResponseDTO<>(
+        PlantFilterDTO filter = new PlantFilterDTO(tagId, "all".equalsIgnoreCase(tagMatch), period, areaName);
+        if (after != null) {
+            CursorPageDTO<PlantSummaryDTO> cursorPage = plantService.getPublishedPlantsAfter(
+                    filter, after, pageable.getPageSize());
+            return ResponseEntity.ok(ApiResponse.success(cursorPage));
+        }
+        Page<PlantSummaryDTO> plantDtoPage = plantService.getPublishedPlants(filter, pageable);
+        PagedResponseDTO<PlantSummaryDTO> response = new PagedResponseDTO<>(
                 plantDtoPage.getContent(),
                 plantDtoPage.getNumber(),
                 plantDtoPage.getTotalPages(),
@@ -46,21 +70,49 @@ public class PlantController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    /**
+     * 获取当前筛选条件下各标签、区域和花期月份的植物数量，参数与列表接口相同
+     */
+    @GetMapping("/plants/facets")
+    public ResponseEntity<ApiResponse> getPlantFacets(
+            @RequestParam(required = false) List<Integer> tagId,
+            @RequestParam(defaultValue = "any") String tagMatch,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) List<String> areaName) {
+        PlantFilterDTO filter = new PlantFilterDTO(tagId, "all".equalsIgnoreCase(tagMatch), period, areaName);
+        return ResponseEntity.ok(ApiResponse.success(plantService.getPlantFacets(filter)));
+    }
+
+    /**
+     * 搜索框联想，返回以 prefix 开头的植物名、学名、标签和区域，按包含该词的植物数排序
+     */
+    @GetMapping("/plants/suggest")
+    public ResponseEntity<ApiResponse> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(plantService.suggest(prefix, limit)));
+    }
+
+    /**
+     * 获取植物详情，支持条件请求：先用版本探测比较 ETag / Last-Modified，未变化时直接返回 304
+     */
     @GetMapping("/plants/{id}")
-    public ResponseEntity<ApiResponse> getPlantById(@PathVariable Integer id) {
-        Plant plantEntity = plantService.getPlantById(id);
-        PlantDTO plantDTO = EntityMapper.toPlantDTO(plantEntity);
-        return ResponseEntity.ok(ApiResponse.success(plantDTO));
+    public ResponseEntity<ApiResponse> getPlantById(@PathVariable Integer id, WebRequest webRequest) {
+        ResourceVersion version = plantService.getPlantDetailVersion(id);
+        if (version != null && webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        PlantDTO plantDTO = plantService.getPlantDetail(id);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiResponse.success(plantDTO));
     }
 
     @GetMapping("/my-gallery")
     public ResponseEntity<ApiResponse> getMyPlants(
             @RequestParam(required = false) Plant.PlantStatus status,
-            Principal principal,
+            @CurrentUser JwtUserPrincipal currentUser,
             Pageable pageable) {
-        User currentUser = getCurrentUser(principal);
-        Page<PlantDTO> plantDtoPage = plantService.getPlantsByCreator(currentUser.getId(), status, pageable);
-        PagedResponseDTO<PlantDTO> response = new PagedResponseDTO<>(
+        Page<PlantSummaryDTO> plantDtoPage = plantService.getPlantsByCreator(currentUser.id(), status, pageable);
+        PagedResponseDTO<PlantSummaryDTO> response = new PagedResponseDTO<>(
                 plantDtoPage.getContent(),
                 plantDtoPage.getNumber(),
                 plantDtoPage.getTotalPages(),
@@ -73,16 +125,14 @@ public class PlantController {
     public ResponseEntity<ApiResponse> createPlant(
         @RequestPart("plant") PlantCreateDTO plantCreateDTO,
         @RequestPart(value = "mainImage", required = false) MultipartFile mainImage,
-        Principal principal) {
-    User currentUser = getCurrentUser(principal);
-    Plant createdPlant = plantService.createPlant(plantCreateDTO, mainImage, currentUser.getId());
+        @CurrentUser JwtUserPrincipal currentUser) {
+    Plant createdPlant = plantService.createPlant(plantCreateDTO, mainImage, currentUser.id());
     return ResponseEntity.ok(ApiResponse.success(EntityMapper.toPlantDTO(createdPlant)));
     }
 
     @GetMapping("/my-gallery/{id}")
-    public ResponseEntity<ApiResponse> getPlantByIdForUser(@PathVariable Integer id, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        Plant plant = plantService.getPlantByIdAndCreator(id, currentUser.getId());
+    public ResponseEntity<ApiResponse> getPlantByIdForUser(@PathVariable Integer id, @CurrentUser JwtUserPrincipal currentUser) {
+        Plant plant = plantService.getPlantByIdAndCreator(id, currentUser.id());
         return ResponseEntity.ok(ApiResponse.success(EntityMapper.toPlantDTO(plant)));
     }
 
@@ -91,25 +141,38 @@ public class PlantController {
             @PathVariable Integer id,
             @RequestPart("plant") PlantCreateDTO plantCreateDTO,
             @RequestPart(value = "mainImage", required = false) MultipartFile mainImage, // 接收图片
-            Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        Plant updatedPlant = plantService.updatePlant(id, plantCreateDTO, mainImage, currentUser.getId());
+            @CurrentUser JwtUserPrincipal currentUser) {
+        Plant updatedPlant = plantService.updatePlant(id, plantCreateDTO, mainImage, currentUser.id());
         return ResponseEntity.ok(ApiResponse.success(EntityMapper.toPlantDTO(updatedPlant)));
     }
 
     @DeleteMapping("/my-gallery/{id}")
-    public ResponseEntity<ApiResponse> deletePlant(@PathVariable Integer id, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        plantService.deletePlant(id, currentUser.getId());
+    public ResponseEntity<ApiResponse> deletePlant(@PathVariable Integer id, @CurrentUser JwtUserPrincipal currentUser) {
+        plantService.deletePlant(id, currentUser.id());
         return ResponseEntity.ok(ApiResponse.success("Plant deleted successfully."));
     }
 
+    /**
+     * 搜索已发布植物
+     * 默认按名称模糊匹配；mode=ranked 时使用全文索引在名称、学名、科属、简介、标签和地点中检索并按相关度排序；
+     * mode=fuzzy 时在植物名和地点名中按中文片段、全拼或拼音首字母匹配
+     */
     @GetMapping("/plants/search")
     public ResponseEntity<ApiResponse> searchPlants(
             @RequestParam String query,
+            @RequestParam(defaultValue = "name") String mode,
             Pageable pageable) {
-        Page<PlantDTO> plantDtoPage = plantService.searchPlants(query, pageable);
-        PagedResponseDTO<PlantDTO> response = new PagedResponseDTO<>(
+        Page<PlantSummaryDTO> plantDtoPage;
+        if ("ranked".equalsIgnoreCase(mode)) {
+            plantDtoPage = plantService.searchPlantsRanked(query, pageable);
+        } else if ("fuzzy".equalsIgnoreCase(mode)) {
+            plantDtoPage = plantService.searchPlantsFuzzy(query, pageable);
+        } else if ("name".equalsIgnoreCase(mode)) {
+            plantDtoPage = plantService.searchPlants(query, pageable);
+        } else {
+            throw new IllegalArgumentException("Unsupported search mode: " + mode);
+        }
+        PagedResponseDTO<PlantSummaryDTO> response = new PagedResponseDTO<>(
                 plantDtoPage.getContent(),
                 plantDtoPage.getNumber(),
                 plantDtoPage.getTotalPages(),
@@ -118,19 +181,62 @@ public class PlantController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * 获取地图点位
+     * 同时传入 minX、minY、maxX、maxY 时只返回该视口内的点位，否则返回全部点位；
+     * 传入 zoom 时返回该缩放级别的点位聚合而不是单个点位。
+     * 全量请求带有强 ETag 和 X-Map-Version 响应头，数据未变化时返回 304；
+     * 传入 sinceVersion 时只返回该版本之后新增、移动或删除的点位
+     */
     @GetMapping("/plants/map-points")
-    public ResponseEntity<ApiResponse> getMapPoints() {
-        return ResponseEntity.ok(ApiResponse.success(plantService.getMapPoints()));
-    }
-
-    private User getCurrentUser(Principal principal) {
-        if (principal == null) {
-            throw new SecurityException("Authentication is required to perform this action.");
+    public ResponseEntity<ApiResponse> getMapPoints(
+            @RequestParam(required = false) Float minX,
+            @RequestParam(required = false) Float minY,
+            @RequestParam(required = false) Float maxX,
+            @RequestParam(required = false) Float maxY,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Long sinceVersion) {
+        boolean anyBound = minX != null || minY != null || maxX != null || maxY != null;
+        if (anyBound && (minX == null || minY == null || maxX == null || maxY == null)) {
+            throw new IllegalArgumentException("minX, minY, maxX and maxY must be provided together.");
+        }
+        if (zoom != null) {
+            float[] viewport = anyBound ? new float[] {minX, minY, maxX, maxY} : null;
+            return ResponseEntity.ok(ApiResponse.success(plantService.getMapClusters(zoom, viewport)));
         }
-        try {
-            return userService.findUserByUsername(principal.getName());
-        } catch (UsernameNotFoundException e) {
-            throw new SecurityException("User not found, authentication failed.");
+        if (anyBound) {
+            return ResponseEntity.ok(ApiResponse.success(plantService.getMapPointsInViewport(minX, minY, maxX, maxY)));
         }
+        if (sinceVersion != null) {
+            PlantMapDeltaDTO delta = plantService.getMapPointsDelta(sinceVersion);
+            return ResponseEntity.ok()
+                    .eTag(mapETag(delta.getVersion()))
+                    .header(MAP_VERSION_HEADER, String.valueOf(delta.getVersion()))
+                    .body(ApiResponse.success(delta));
+        }
+        // 响应带 ETag 时，If-None-Match 匹配的请求由 Spring 直接返回 304，不写出响应体
+        PlantMapIndexService.MapSnapshot snapshot = plantService.getMapPoints();
+        return ResponseEntity.ok()
+                .eTag(mapETag(snapshot.version()))
+                .header(MAP_VERSION_HEADER, String.valueOf(snapshot.version()))
+                .body(ApiResponse.success(snapshot.points()));
     }
+
+    /**
+     * 获取地图瓦片，缩放级别与 map-points 的 zoom 相同
+     * 瓦片带有 ETag 和 Cache-Control，浏览器和代理可以按瓦片独立缓存
+     */
+    @GetMapping("/plants/map-tiles/{z}/{x}/{y}")
+    public ResponseEntity<ApiResponse> getMapTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        PlantMapTileDTO tile = plantService.getMapTile(z, x, y);
+        return ResponseEntity.ok()
+                .eTag("\"tile-" + z + "-" + x + "-" + y + "-" + tile.getVersion() + "\"")
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic())
+                .body(ApiResponse.success(tile));
+    }
+
+    private static String mapETag(long version) {
+        return "\"map-" + version + "\"";
+    }
+
 }
\ No newline at end of file
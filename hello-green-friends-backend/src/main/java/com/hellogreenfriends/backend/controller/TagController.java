@@ -1,31 +1,40 @@
 package com.hellogreenfriends.backend.controller;
 
-import com.hellogreenfriends.backend.dto.ApiResponse;
+import com.hellogreenfriends.backend.dto.TagDTO;
 import com.hellogreenfriends.backend.service.TagService;
+import com.hellogreenfriends.backend.util.JsonListSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.hellogreenfriends.backend.dto.TagDTO;
-import com.hellogreenfriends.backend.mapper.EntityMapper;
-import com.hellogreenfriends.backend.entity.Tag;
-import java.util.List;
-import java.util.stream.Collectors;
-
+import org.springframework.web.context.request.WebRequest;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/tags")
 @CrossOrigin(origins = "*")
 public class TagController {
 
+    // 标签很少变化，允许客户端缓存一分钟，之后再用 ETag 重新验证
+    private static final CacheControl TAGS_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     @Autowired
     private TagService tagService;
 
+    /**
+     * 直接返回快照中序列化好的响应体
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllTags() {
-        List<Tag> tags = tagService.getAllTags();
-        List<TagDTO> tagDTOs = tags.stream()
-                                .map(EntityMapper::toTagDTO)
-                                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success(tagDTOs));
+    public ResponseEntity<byte[]> getAllTags(WebRequest webRequest) {
+        JsonListSnapshot<TagDTO> snapshot = tagService.getTagsSnapshot();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(TAGS_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(TAGS_CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
     }
-}
\ No newline at end of file
+}
@@ -6,15 +6,15 @@ import com.hellogreenfriends.backend.dto.UserDTO;
 import com.hellogreenfriends.backend.dto.UserProfileUpdateDTO;
 import com.hellogreenfriends.backend.entity.User;
 import com.hellogreenfriends.backend.mapper.EntityMapper;
+import com.hellogreenfriends.backend.security.CurrentUser;
+import com.hellogreenfriends.backend.security.JwtUserPrincipal;
 import com.hellogreenfriends.backend.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/users")
@@ -25,42 +25,28 @@ public class UserController {
     private UserService userService;
 
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse> getCurrentUserInfo(Principal principal) {
-        User currentUser = getCurrentUser(principal);
+    public ResponseEntity<ApiResponse> getCurrentUserInfo(@CurrentUser User currentUser) {
         UserDTO userDTO = EntityMapper.toUserDTO(currentUser);
         return ResponseEntity.ok(ApiResponse.success(userDTO));
     }
 
     @PutMapping("/me")
-    public ResponseEntity<ApiResponse> updateUserProfile(@RequestBody UserProfileUpdateDTO profileUpdateDTO, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        User updatedUser = userService.updateUserProfile(currentUser.getId(), profileUpdateDTO);
+    public ResponseEntity<ApiResponse> updateUserProfile(@RequestBody UserProfileUpdateDTO profileUpdateDTO, @CurrentUser JwtUserPrincipal currentUser) {
+        User updatedUser = userService.updateUserProfile(currentUser.id(), profileUpdateDTO);
         UserDTO userDTO = EntityMapper.toUserDTO(updatedUser);
         return ResponseEntity.ok(ApiResponse.success(userDTO));
     }
 
     @PutMapping("/me/password")
-    public ResponseEntity<ApiResponse> changePassword(@RequestBody PasswordChangeDTO passwordChangeDTO, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        userService.changePassword(currentUser.getId(), passwordChangeDTO.getOldPassword(), passwordChangeDTO.getNewPassword());
+    public ResponseEntity<ApiResponse> changePassword(@RequestBody PasswordChangeDTO passwordChangeDTO, @CurrentUser JwtUserPrincipal currentUser) {
+        userService.changePassword(currentUser.id(), passwordChangeDTO.getOldPassword(), passwordChangeDTO.getNewPassword());
         return ResponseEntity.ok(ApiResponse.success("Password changed successfully."));
     }
 
     @PutMapping("/me/avatar")
-    public ResponseEntity<ApiResponse> updateAvatar(@RequestParam("file") MultipartFile file, Principal principal) {
-        User currentUser = getCurrentUser(principal);
-        User updatedUser = userService.updateAvatar(currentUser.getId(), file);
+    public ResponseEntity<ApiResponse> updateAvatar(@RequestParam("file") MultipartFile file, @CurrentUser JwtUserPrincipal currentUser) {
+        User updatedUser = userService.updateAvatar(currentUser.id(), file);
         return ResponseEntity.ok(ApiResponse.success(EntityMapper.toUserDTO(updatedUser)));
     }
 
-    private User getCurrentUser(Principal principal) {
-        if (principal == null) {
-            throw new SecurityException("Authentication is required to perform this action.");
-        }
-        try {
-            return userService.findUserByUsername(principal.getName());
-        } catch (UsernameNotFoundException e) {
-            throw new SecurityException("User not found, authentication failed.");
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 内存缓存的命中与淘汰统计，供管理员查看
+ * evictionCount 只统计因容量不足被淘汰的条目，不含数据变更引起的失效；
+ * size 与 maximumSize 的单位由 sizeUnit 说明（bytes 或 entries）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private int entryCount;
+    private long size;
+    private long maximumSize;
+    private String sizeUnit;
+}
@@ -0,0 +1,21 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果，不包含总页数和总条数，
+ * 客户端通过 nextCursor 请求下一页，为 null 表示已到最后一页
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个筛选项及其植物数量
+ * 标签的 key 为标签ID，区域的 key 为区域名称，月份的 key 为 1-12
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+    private String key;
+    private String name;
+    private int count;
+}
@@ -0,0 +1,18 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 正在执行的一次合并调用
+ * waiters 为正在等待该结果的其他调用数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InFlightCallDTO {
+    private String arguments;
+    private int waiters;
+    private long elapsedMillis;
+}
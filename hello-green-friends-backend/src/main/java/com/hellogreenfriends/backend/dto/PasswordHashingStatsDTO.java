@@ -0,0 +1,25 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 密码哈希线程池的运行统计，供管理员查看
+ * rejected 为线程池已满被拒绝的次数，rateLimitedLogins 为触发登录限流的次数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDTO {
+    private int threads;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private double averageQueueWaitMillis;
+    private double averageHashMillis;
+    private double maxHashMillis;
+    private long rateLimitedLogins;
+}
@@ -0,0 +1,20 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 图鉴页筛选项计数，与列表使用相同的筛选条件
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantFacetsDTO {
+    private int total;
+    private List<FacetCountDTO> tags;
+    private List<FacetCountDTO> areas;
+    private List<FacetCountDTO> months;
+}
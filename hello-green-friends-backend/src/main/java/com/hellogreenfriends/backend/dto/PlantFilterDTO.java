@@ -0,0 +1,33 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 图鉴页筛选条件
+ * 同一维度内的多个值取并集（标签可通过 matchAllTags 改为交集），不同维度之间取交集
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantFilterDTO {
+    private List<Integer> tagIds;
+    private boolean matchAllTags;
+    private String period;
+    private List<String> areaNames;
+
+    public boolean hasTags() {
+        return tagIds != null && !tagIds.isEmpty();
+    }
+
+    public boolean hasAreas() {
+        return areaNames != null && !areaNames.isEmpty();
+    }
+
+    public boolean hasPeriod() {
+        return period != null && !period.isBlank();
+    }
+}
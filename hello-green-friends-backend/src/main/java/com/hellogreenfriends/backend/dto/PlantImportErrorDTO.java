@@ -0,0 +1,16 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量导入中某一行的错误，line 为文件中的行号（从 1 开始，CSV 包含表头行）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantImportErrorDTO {
+    private long line;
+    private String message;
+}
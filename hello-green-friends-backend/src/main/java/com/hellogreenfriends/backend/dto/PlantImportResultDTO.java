@@ -0,0 +1,23 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量导入的结果
+ * errors 最多返回前 1000 条，failedCount 为全部失败行数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantImportResultDTO {
+    private long totalRows;
+    private long importedCount;
+    private long failedCount;
+    private long createdLocations;
+    private long elapsedMillis;
+    private List<PlantImportErrorDTO> errors;
+}
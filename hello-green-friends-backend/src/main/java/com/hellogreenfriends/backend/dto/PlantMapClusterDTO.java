@@ -0,0 +1,22 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 地图点位聚合
+ * mapCoordX、mapCoordY 为聚合内点位的中心，count 为点位数，
+ * 代表植物用于在聚合标记上显示名称和缩略图
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantMapClusterDTO {
+    private Float mapCoordX;
+    private Float mapCoordY;
+    private int count;
+    private Integer plantId;
+    private String name;
+    private String mainImageUrl;
+}
@@ -0,0 +1,22 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 地图点位增量同步结果
+ * full 为 true 时 upserts 为全部点位，客户端应丢弃本地数据；
+ * 否则客户端用 upserts 整体替换对应植物的点位，并删除 removedPlantIds 中植物的点位
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantMapDeltaDTO {
+    private long version;
+    private boolean full;
+    private List<PlantMapPointDTO> upserts;
+    private List<Integer> removedPlantIds;
+}
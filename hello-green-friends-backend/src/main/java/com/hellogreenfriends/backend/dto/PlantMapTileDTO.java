@@ -0,0 +1,29 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 地图瓦片，瓦片内的点位按列存储
+ * plantIds、mapCoordX、mapCoordY 的同一下标对应同一个点位；
+ * tags 为瓦片内出现的标签字典，每个点位占用 tagWords 个 long，
+ * 第 i 个点位的标签位图为 tagBits[i * tagWords] 到 tagBits[(i + 1) * tagWords - 1]，第 j 位对应 tags 中的第 j 个标签
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantMapTileDTO {
+    private int z;
+    private int x;
+    private int y;
+    private long version;
+    private int[] plantIds;
+    private float[] mapCoordX;
+    private float[] mapCoordY;
+    private List<TagDTO> tags;
+    private int tagWords;
+    private long[] tagBits;
+}
@@ -0,0 +1,44 @@
+package com.hellogreenfriends.backend.dto;
+
+import com.hellogreenfriends.backend.entity.Plant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 列表页使用的植物摘要
+ * 只包含卡片展示所需的字段，不含简介、图片和地点详情，完整信息通过 /api/plants/{id} 获取
+ */
+@Data
+@NoArgsConstructor
+public class PlantSummaryDTO {
+    private Integer id;
+    private String name;
+    private String scientificName;
+    private String mainImageUrl;
+    private String status;
+    private String creatorNickname;
+    private List<TagDTO> tags = new ArrayList<>();
+    private List<String> areaNames = new ArrayList<>();
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * 供 JPQL 构造器表达式使用，标签和区域由后续查询填充
+     */
+    public PlantSummaryDTO(Integer id, String name, String scientificName, String mainImageUrl,
+                           Plant.PlantStatus status, String creatorNickname,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.scientificName = scientificName;
+        this.mainImageUrl = mainImageUrl;
+        this.status = status != null ? status.name() : null;
+        this.creatorNickname = creatorNickname;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 单个方法的请求合并统计
+ * executions 为实际执行次数，coalesced 为直接复用他人结果的调用次数，
+ * timedOut 为等待超时后自己执行的调用次数，inFlight 为当前正在执行的调用
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SingleFlightStatsDTO {
+    private String method;
+    private long executions;
+    private long coalesced;
+    private long timedOut;
+    private List<InFlightCallDTO> inFlight;
+}
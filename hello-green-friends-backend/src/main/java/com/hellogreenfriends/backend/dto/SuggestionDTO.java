@@ -0,0 +1,18 @@
+package com.hellogreenfriends.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索框联想词
+ * type 为 PLANT_NAME、SCIENTIFIC_NAME、TAG 或 AREA，count 为包含该词的已发布植物数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    private String text;
+    private String type;
+    private int count;
+}
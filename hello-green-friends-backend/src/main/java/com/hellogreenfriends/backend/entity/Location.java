@@ -1,6 +1,9 @@
 package com.hellogreenfriends.backend.entity;
 
+import com.hellogreenfriends.backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
@@ -14,13 +17,20 @@ import java.util.Set;
  * 用于描述植物分布的具体地点
  */
 @Entity
-@Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.LOCATIONS_REGION)
+@Table(name = "locations", indexes = {
+    // 按区域筛选植物时使用
+    @Index(name = "idx_locations_area_name", columnList = "area_name")
+})
 @Getter
 @Setter
 public class Location {
 
-    @Id // 主键为 id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 主键使用池化序列，每次取 50 个ID，插入可以按 JDBC 批量执行；初始值避开 data.sql 中的固定ID
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locations_seq")
+    @SequenceGenerator(name = "locations_seq", sequenceName = "locations_seq", initialValue = 1000, allocationSize = 50)
     private Integer id;
 
     // 区域名称，如：东区
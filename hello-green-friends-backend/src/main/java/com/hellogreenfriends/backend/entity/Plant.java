@@ -17,13 +17,19 @@ import java.util.HashSet;
  * 植物实体类
  */
 @Entity
-@Table(name = "plants")
+@Table(name = "plants", indexes = {
+    // 列表查询按状态过滤，游标分页按 (updated_at, id) 排序
+    // 花期筛选的按位与条件无法使用索引，只能借助 status 前缀缩小范围后逐行过滤
+    @Index(name = "idx_plants_status_updated_at", columnList = "status, updated_at, id")
+})
 @Getter
 @Setter
 public class Plant {
 
-    @Id // 主键为 id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // 自增策略
+    // 主键使用池化序列，批量导入时植物可以按 JDBC 批量插入；初始值避开 data.sql 中的固定ID
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plants_seq")
+    @SequenceGenerator(name = "plants_seq", sequenceName = "plants_seq", initialValue = 1000, allocationSize = 50)
     private Integer id;
 
     // 植物名称
@@ -42,6 +48,10 @@ public class Plant {
     @Column(name = "flowering_period", columnDefinition = "NVARCHAR(255)")
     private String floweringPeriod;
 
+    // 由花期文本解析出的 12 位月份掩码，第 0 位表示一月，无法识别时为 0
+    @Column(name = "flowering_months")
+    private Integer floweringMonths;
+
     // 植物简介
     @Lob
     @Column(columnDefinition = "NVARCHAR(MAX)")
@@ -78,7 +88,8 @@ public class Plant {
     @JoinTable(
         name = "plant_tags", // 关联表名
         joinColumns = @JoinColumn(name = "plant_id"), //  关联的植物外键列
-        inverseJoinColumns = @JoinColumn(name = "tag_id") // 关联的标签外键列
+        inverseJoinColumns = @JoinColumn(name = "tag_id"), // 关联的标签外键列
+        indexes = @Index(name = "idx_plant_tags_tag_id", columnList = "tag_id") // 按标签筛选时使用
     )
     private Set<Tag> tags = new HashSet<>(); // 初始化标签列表
 
@@ -19,8 +19,10 @@ import java.util.Objects;
 @Setter
 public class PlantLocation {
 
-    @Id // 主键为 id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 主键使用池化序列，每次取 50 个ID，插入可以按 JDBC 批量执行；初始值避开 data.sql 中的固定ID
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plant_locations_seq")
+    @SequenceGenerator(name = "plant_locations_seq", sequenceName = "plant_locations_seq", initialValue = 1000, allocationSize = 50)
     private Integer id;
 
     // 关系：一个植物可以分布在多个地点
@@ -4,7 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import java.util.Objects;
 import java.util.HashSet;
+import com.hellogreenfriends.backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Set;
 
 /**
@@ -12,6 +15,8 @@ import java.util.Set;
  * 用于描述植物的标签信息
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TAGS_REGION)
 @Table(name = "tags")
 @Getter
 @Setter
@@ -1,6 +1,9 @@
 package com.hellogreenfriends.backend.entity;
 
+import com.hellogreenfriends.backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
@@ -14,6 +17,8 @@ import java.util.Objects;
  * 用于描述系统中的用户信息，包括登录名、昵称、密码等
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS_REGION)
 @Table(name = "users")
 @Getter
 @Setter
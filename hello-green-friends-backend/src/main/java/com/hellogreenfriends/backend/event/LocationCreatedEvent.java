@@ -0,0 +1,16 @@
+package com.hellogreenfriends.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 新地点创建事件
+ * 由 PlantService 在写入植物时插入新地点后发布，区域名称快照在事务提交后监听，区域名称是新出现的才重新加载
+ */
+@Getter
+@AllArgsConstructor
+public class LocationCreatedEvent {
+
+    private final Integer locationId;
+    private final String areaName;
+}
@@ -0,0 +1,30 @@
+package com.hellogreenfriends.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 植物数据变更事件
+ * 由 PlantService 在写操作中发布，各内存索引在事务提交后监听并增量更新
+ */
+@Getter
+@AllArgsConstructor
+public class PlantChangedEvent {
+
+    private final Integer plantId;
+    private final ChangeType type;
+
+    /**
+     * 变更类型
+     * CREATED: 新建植物
+     * UPDATED: 编辑植物信息
+     * DELETED: 删除植物
+     * REVIEWED: 审核通过或拒绝
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        REVIEWED
+    }
+}
@@ -0,0 +1,15 @@
+package com.hellogreenfriends.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 植物图片变更事件
+ * 由 ImageService 在新增或删除植物图片时发布，植物详情缓存在事务提交后监听并失效对应条目
+ */
+@Getter
+@AllArgsConstructor
+public class PlantImagesChangedEvent {
+
+    private final Integer plantId;
+}
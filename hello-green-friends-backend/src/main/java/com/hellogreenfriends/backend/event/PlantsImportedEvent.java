@@ -0,0 +1,15 @@
+package com.hellogreenfriends.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 植物批量导入完成事件
+ * 导入的植物数量较多，不逐个发布 PlantChangedEvent，各内存索引收到后全量重建
+ */
+@Getter
+@AllArgsConstructor
+public class PlantsImportedEvent {
+
+    private final long importedCount;
+}
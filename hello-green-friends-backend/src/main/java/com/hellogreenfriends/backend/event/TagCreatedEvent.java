@@ -0,0 +1,15 @@
+package com.hellogreenfriends.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 新标签创建事件
+ * 由 TagService 在插入新标签时发布，标签列表快照在事务提交后监听并重新加载
+ */
+@Getter
+@AllArgsConstructor
+public class TagCreatedEvent {
+
+    private final Integer tagId;
+}
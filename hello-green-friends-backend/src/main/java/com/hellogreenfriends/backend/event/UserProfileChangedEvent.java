@@ -0,0 +1,15 @@
+package com.hellogreenfriends.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 用户资料变更事件
+ * 由 UserService 在修改昵称或头像时发布，植物详情中嵌入了创建者和图片上传者的资料，需要随之失效
+ */
+@Getter
+@AllArgsConstructor
+public class UserProfileChangedEvent {
+
+    private final Integer userId;
+}
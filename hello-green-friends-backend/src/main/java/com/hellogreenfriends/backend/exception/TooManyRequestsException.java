@@ -0,0 +1,17 @@
+package com.hellogreenfriends.backend.exception;
+
+import lombok.Getter;
+
+/**
+ * 请求过多或服务繁忙，返回 429，retryAfterSeconds 写入 Retry-After 响应头
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -2,8 +2,11 @@ package com.hellogreenfriends.backend.repository;
 
 import com.hellogreenfriends.backend.entity.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -13,4 +16,17 @@ import java.util.List;
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Integer> {
     List<Image> findByPlantId(Integer plantId);
+
+    /**
+     * 植物图片列表的版本探测，只查询图片数和图片、上传者的最近更新时间
+     */
+    @Query("SELECT COUNT(i.id) AS imageCount, MAX(i.updatedAt) AS imagesUpdatedAt, MAX(u.updatedAt) AS uploadersUpdatedAt " +
+           "FROM Image i LEFT JOIN i.uploader u WHERE i.plant.id = :plantId")
+    ImageVersionView findVersionByPlantId(@Param("plantId") Integer plantId);
+
+    interface ImageVersionView {
+        Long getImageCount();
+        LocalDateTime getImagesUpdatedAt();
+        LocalDateTime getUploadersUpdatedAt();
+    }
 }
\ No newline at end of file
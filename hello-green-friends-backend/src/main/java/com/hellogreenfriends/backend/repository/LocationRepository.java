@@ -1,9 +1,13 @@
 package com.hellogreenfriends.backend.repository;
 
 import com.hellogreenfriends.backend.entity.Location;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +21,15 @@ public interface LocationRepository extends JpaRepository<Location, Integer> {
     @Query("SELECT DISTINCT l.areaName FROM Location l ORDER BY l.areaName")
     List<String> findDistinctAreaNames();
 
+    /**
+     * 按区域和具体名称查找单个地点，结果进入查询缓存
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Location> findByAreaNameAndSpecificName(String areaName, String specificName);
-}
\ No newline at end of file
+
+    /**
+     * 写入植物时一次查出请求中的所有地点
+     * 两个条件分别匹配，结果可能包含名称交叉组合出的其他地点，调用方需按 (区域, 具体名称) 精确匹配
+     */
+    List<Location> findByAreaNameInAndSpecificNameIn(Collection<String> areaNames, Collection<String> specificNames);
+}
@@ -2,8 +2,12 @@ package com.hellogreenfriends.backend.repository;
 
 import com.hellogreenfriends.backend.entity.PlantLocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * 用于处理植物与地点关联的数据库操作。
  * 主要功能是通过植物ID删除所有关联记录。
@@ -11,4 +15,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PlantLocationRepository extends JpaRepository<PlantLocation, Long> {
     void deleteByPlantId(Integer plantId);
+
+    /**
+     * 查询植物的全部地点关联并抓取地点，编辑植物时用于计算地点差异
+     */
+    @Query("SELECT pl FROM PlantLocation pl JOIN FETCH pl.location WHERE pl.plant.id = :plantId")
+    List<PlantLocation> findWithLocationByPlantId(@Param("plantId") Integer plantId);
 }
\ No newline at end of file
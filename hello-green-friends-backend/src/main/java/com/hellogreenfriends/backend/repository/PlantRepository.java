@@ -1,13 +1,17 @@
 package com.hellogreenfriends.backend.repository;
 
+import com.hellogreenfriends.backend.dto.PlantSummaryDTO;
 import com.hellogreenfriends.backend.entity.Plant;
 import com.hellogreenfriends.backend.entity.Plant.PlantStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,41 +20,232 @@ public interface PlantRepository extends JpaRepository<Plant, Integer> {
 
     /**
      * 复杂动态查询，用于植物图鉴页的筛选功能
-     * @param tagId 标签ID (可选)
-     * @param period 花期关键词 (可选)
-     * @param areaName 区域名称 (可选)
+     * 第一阶段只查询当前页的植物ID，不抓取任何集合，分页和排序都在数据库中完成，
+     * 再通过 findAllWithDetailsByIdIn 一次性加载这些植物的关联数据
+     * @param tagIds 标签ID，不能为空集合
+     * @param tagMatchCount 至少需要包含的标签数，0 表示不按标签筛选，1 表示包含任一标签
+     * @param periodMask 花期月份掩码 (可选)，与植物的月份掩码有交集即匹配；H2 无法推断 bitand 中参数的类型，查询中显式转换为 Integer
+     * @param filterAreas 是否按区域筛选
+     * @param areaNames 区域名称，包含任一区域即匹配，不能为空集合
      * @param pageable 分页排序信息
-     * @return 符合条件的植物分页结果
+     * @return 符合条件的植物ID分页结果
      */
-    @Query(value = "SELECT DISTINCT p FROM Plant p " +
-                   "LEFT JOIN FETCH p.tags " +
-                   "LEFT JOIN FETCH p.plantLocations pl " +
-                   "LEFT JOIN FETCH pl.location l " +
+    @Query(value = "SELECT p.id FROM Plant p " +
                    "WHERE p.status = 'PUBLISHED' " +
-                   "AND (:tagId IS NULL OR EXISTS (SELECT t FROM p.tags t WHERE t.id = :tagId)) " +
-                   "AND (:period IS NULL OR p.floweringPeriod LIKE %:period%) " +
-                   "AND (:areaName IS NULL OR pl.location.areaName = :areaName)",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Plant p " +
-                        "LEFT JOIN p.tags t_count " +
-                        "LEFT JOIN p.plantLocations pl_count " +
+                   "AND (:tagMatchCount = 0 OR (SELECT COUNT(t) FROM p.tags t WHERE t.id IN :tagIds) >= :tagMatchCount) " +
+                   "AND (:periodMask IS NULL OR bitand(p.floweringMonths, cast(:periodMask as Integer)) <> 0) " +
+                   "AND (:filterAreas = false OR EXISTS (SELECT pl FROM PlantLocation pl WHERE pl.plant = p AND pl.location.areaName IN :areaNames))",
+           countQuery = "SELECT COUNT(p) FROM Plant p " +
                         "WHERE p.status = 'PUBLISHED' " +
-                        "AND (:tagId IS NULL OR t_count.id = :tagId) " +
-                        "AND (:period IS NULL OR p.floweringPeriod LIKE %:period%) " +
-                        "AND (:areaName IS NULL OR pl_count.location.areaName = :areaName)")
-    Page<Plant> findWithFilters(
-        @Param("tagId") Integer tagId,
-        @Param("period") String period,
-        @Param("areaName") String areaName,
+                        "AND (:tagMatchCount = 0 OR (SELECT COUNT(t) FROM p.tags t WHERE t.id IN :tagIds) >= :tagMatchCount) " +
+                        "AND (:periodMask IS NULL OR bitand(p.floweringMonths, cast(:periodMask as Integer)) <> 0) " +
+                        "AND (:filterAreas = false OR EXISTS (SELECT pl FROM PlantLocation pl WHERE pl.plant = p AND pl.location.areaName IN :areaNames))")
+    Page<Integer> findIdsWithFilters(
+        @Param("tagIds") Collection<Integer> tagIds,
+        @Param("tagMatchCount") int tagMatchCount,
+        @Param("periodMask") Integer periodMask,
+        @Param("filterAreas") boolean filterAreas,
+        @Param("areaNames") Collection<String> areaNames,
         Pageable pageable
     );
 
     /**
-     * 根据植物名或别名进行模糊搜索
+     * 游标（keyset）分页查询，按 (updatedAt, id) 倒序排列，
+     * 只取游标之后的植物ID，不执行 COUNT 查询
+     * @param afterUpdatedAt 上一页最后一条的更新时间 (第一页传 null)
+     * @param afterId 上一页最后一条的ID (第一页传 null)
+     * @param pageable 只使用其中的 size，调用方传入 size + 1 用于判断是否还有下一页
+     * @return 符合条件的植物ID列表
+     */
+    @Query("SELECT p.id FROM Plant p " +
+           "WHERE p.status = 'PUBLISHED' " +
+           "AND (:tagMatchCount = 0 OR (SELECT COUNT(t) FROM p.tags t WHERE t.id IN :tagIds) >= :tagMatchCount) " +
+           "AND (:periodMask IS NULL OR bitand(p.floweringMonths, cast(:periodMask as Integer)) <> 0) " +
+           "AND (:filterAreas = false OR EXISTS (SELECT pl FROM PlantLocation pl WHERE pl.plant = p AND pl.location.areaName IN :areaNames)) " +
+           "AND (:afterUpdatedAt IS NULL OR p.updatedAt < :afterUpdatedAt " +
+           "     OR (p.updatedAt = :afterUpdatedAt AND p.id < :afterId)) " +
+           "ORDER BY p.updatedAt DESC, p.id DESC")
+    List<Integer> findIdsWithFiltersAfter(
+        @Param("tagIds") Collection<Integer> tagIds,
+        @Param("tagMatchCount") int tagMatchCount,
+        @Param("periodMask") Integer periodMask,
+        @Param("filterAreas") boolean filterAreas,
+        @Param("areaNames") Collection<String> areaNames,
+        @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+        @Param("afterId") Integer afterId,
+        Pageable pageable
+    );
+
+    /**
+     * 根据一组ID一次性加载植物及其创建者、标签和地点，
+     * 用于列表查询的第二阶段，返回结果不保证与传入ID的顺序一致
+     */
+    @Query("SELECT DISTINCT p FROM Plant p " +
+           "LEFT JOIN FETCH p.creator " +
+           "LEFT JOIN FETCH p.tags " +
+           "LEFT JOIN FETCH p.plantLocations pl " +
+           "LEFT JOIN FETCH pl.location " +
+           "WHERE p.id IN :ids")
+    List<Plant> findAllWithDetailsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 加载植物的图片及上传者，与 findAllWithDetailsByIdIn 在同一事务中调用时，
+     * 会填充已加载植物实体的 images 集合，避免详情映射时逐张图片查询上传者
+     */
+    @Query("SELECT DISTINCT p FROM Plant p " +
+           "LEFT JOIN FETCH p.images i " +
+           "LEFT JOIN FETCH i.uploader " +
+           "WHERE p.id = :id")
+    Optional<Plant> findWithImagesById(@Param("id") Integer id);
+
+    /**
+     * 植物详情的版本探测，只查询详情中各部分的更新时间和图片数，用于条件请求
+     */
+    @Query("SELECT p.updatedAt AS plantUpdatedAt, c.updatedAt AS creatorUpdatedAt, COUNT(i.id) AS imageCount, " +
+           "MAX(i.updatedAt) AS imagesUpdatedAt, MAX(u.updatedAt) AS uploadersUpdatedAt " +
+           "FROM Plant p LEFT JOIN p.creator c LEFT JOIN p.images i LEFT JOIN i.uploader u " +
+           "WHERE p.id = :id GROUP BY p.id, p.updatedAt, c.updatedAt")
+    Optional<PlantDetailVersionView> findDetailVersionById(@Param("id") Integer id);
+
+    interface PlantDetailVersionView {
+        LocalDateTime getPlantUpdatedAt();
+        LocalDateTime getCreatorUpdatedAt();
+        Long getImageCount();
+        LocalDateTime getImagesUpdatedAt();
+        LocalDateTime getUploadersUpdatedAt();
+    }
+
+    /**
+     * 查询尚未计算月份掩码的植物，只取ID和花期文本，供回填任务分批处理
+     */
+    @Query("SELECT p.id AS id, p.floweringPeriod AS floweringPeriod FROM Plant p " +
+           "WHERE p.floweringMonths IS NULL ORDER BY p.id")
+    List<FloweringPeriodView> findFloweringPeriodsToBackfill(Pageable pageable);
+
+    /**
+     * 批量写入月份掩码，不触发 updatedAt 更新
+     */
+    @Modifying
+    @Query("UPDATE Plant p SET p.floweringMonths = :mask WHERE p.id IN :ids")
+    int updateFloweringMonths(@Param("mask") Integer mask, @Param("ids") Collection<Integer> ids);
+
+    /**
+     * 查询所有已发布植物的标签关联，只返回ID，用于重建内存筛选索引
+     */
+    @Query("SELECT p.id AS plantId, t.id AS tagId FROM Plant p JOIN p.tags t WHERE p.status = 'PUBLISHED'")
+    List<PlantTagView> findPublishedPlantTags();
+
+    /**
+     * 查询所有已发布植物所在的区域，用于重建内存筛选索引
+     */
+    @Query("SELECT pl.plant.id AS plantId, l.areaName AS areaName FROM PlantLocation pl JOIN pl.location l " +
+           "WHERE pl.plant.status = 'PUBLISHED'")
+    List<PlantAreaView> findPublishedPlantAreas();
+
+    /**
+     * 查询所有已发布植物的花期，用于重建内存筛选索引
+     */
+    @Query("SELECT p.id AS plantId, p.floweringMonths AS floweringMonths, p.floweringPeriod AS floweringPeriod " +
+           "FROM Plant p WHERE p.status = 'PUBLISHED'")
+    List<PlantMonthsView> findPublishedPlantMonths();
+
+    /**
+     * 查询所有已发布植物的ID，用于分批重建全文索引
+     */
+    @Query("SELECT p.id FROM Plant p WHERE p.status = 'PUBLISHED' ORDER BY p.id")
+    List<Integer> findPublishedIds();
+
+    /**
+     * 查询所有已发布植物的名称和学名，用于重建模糊搜索索引和联想词索引
+     */
+    @Query("SELECT p.id AS plantId, p.name AS name, p.scientificName AS scientificName FROM Plant p WHERE p.status = 'PUBLISHED'")
+    List<PlantNameView> findPublishedPlantNames();
+
+    /**
+     * 查询所有已发布植物所在的具体地点名称，用于重建模糊搜索索引
+     */
+    @Query("SELECT DISTINCT pl.plant.id AS plantId, l.specificName AS specificName FROM PlantLocation pl JOIN pl.location l " +
+           "WHERE pl.plant.status = 'PUBLISHED'")
+    List<PlantSpecificNameView> findPublishedPlantSpecificNames();
+
+    interface PlantNameView {
+        Integer getPlantId();
+        String getName();
+        String getScientificName();
+    }
+
+    interface PlantSpecificNameView {
+        Integer getPlantId();
+        String getSpecificName();
+    }
+
+    interface PlantTagView {
+        Integer getPlantId();
+        Integer getTagId();
+    }
+
+    interface PlantAreaView {
+        Integer getPlantId();
+        String getAreaName();
+    }
+
+    interface PlantMonthsView {
+        Integer getPlantId();
+        Integer getFloweringMonths();
+        String getFloweringPeriod();
+    }
+
+    /**
+     * 花期回填使用的投影
+     */
+    interface FloweringPeriodView {
+        Integer getId();
+        String getFloweringPeriod();
+    }
+
+    /**
+     * 根据一组ID查询植物摘要，只选取列表卡片需要的列，不加载简介和任何集合
+     * 返回结果不保证与传入ID的顺序一致
+     */
+    @Query("SELECT new com.hellogreenfriends.backend.dto.PlantSummaryDTO(" +
+           "p.id, p.name, p.scientificName, p.mainImageUrl, p.status, c.nickname, p.createdAt, p.updatedAt) " +
+           "FROM Plant p LEFT JOIN p.creator c WHERE p.id IN :ids")
+    List<PlantSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 查询一组植物的标签，用于填充植物摘要
+     */
+    @Query("SELECT p.id AS plantId, t.id AS tagId, t.name AS tagName FROM Plant p JOIN p.tags t WHERE p.id IN :ids")
+    List<PlantTagNameView> findTagsByPlantIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 查询一组植物所在的区域，用于填充植物摘要
+     */
+    @Query("SELECT DISTINCT pl.plant.id AS plantId, l.areaName AS areaName FROM PlantLocation pl JOIN pl.location l " +
+           "WHERE pl.plant.id IN :ids")
+    List<PlantAreaView> findAreaNamesByPlantIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 查询所有已发布植物的标签名称，用于重建联想词索引
+     */
+    @Query("SELECT p.id AS plantId, t.id AS tagId, t.name AS tagName FROM Plant p JOIN p.tags t WHERE p.status = 'PUBLISHED'")
+    List<PlantTagNameView> findPublishedPlantTagNames();
+
+    interface PlantTagNameView {
+        Integer getPlantId();
+        Integer getTagId();
+        String getTagName();
+    }
+
+    /**
+     * 根据植物名模糊搜索已发布植物，只返回当前页的ID
      * @param nameQuery 搜索关键词
      * @param pageable 分页信息
      * @return 搜索结果
      */
-    Page<Plant> findByNameContainingIgnoreCaseAndStatus(String nameQuery, PlantStatus status, Pageable pageable);
+    @Query("SELECT p.id FROM Plant p WHERE p.status = 'PUBLISHED' " +
+           "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :nameQuery, '%'))")
+    Page<Integer> findPublishedIdsByNameContaining(@Param("nameQuery") String nameQuery, Pageable pageable);
  
     /**
      * 根据地点的区域名或具体地名模糊搜索植物。
@@ -65,23 +260,23 @@ public interface PlantRepository extends JpaRepository<Plant, Integer> {
     Page<Plant> findByLocationName(@Param("locationQuery") String locationQuery, Pageable pageable);
 
     /**
-     * 根据创建者ID和状态查找植物。
+     * 根据创建者ID和状态查找植物ID。
      * @param creatorId 创建者用户ID
      * @param status 植物状态 (可选)
      * @param pageable 分页信息
      * @return 结果
      */
-    Page<Plant> findByCreatorIdAndStatus(Integer creatorId, PlantStatus status, Pageable pageable);
-    Page<Plant> findByCreatorId(Integer creatorId, Pageable pageable);
+    @Query("SELECT p.id FROM Plant p WHERE p.creator.id = :creatorId AND (:status IS NULL OR p.status = :status)")
+    Page<Integer> findIdsByCreator(@Param("creatorId") Integer creatorId, @Param("status") PlantStatus status, Pageable pageable);
 
     /**
-     * 根据状态查找植物，用于后台管理获取待审核列表等。
+     * 根据状态查找植物ID，用于后台管理获取待审核列表等。
      * @param status 植物状态
      * @param pageable 分页信息
      * @return 结果
      */
-    
-    Page<Plant> findByStatus(Plant.PlantStatus status, Pageable pageable);
+    @Query("SELECT p.id FROM Plant p WHERE p.status = :status")
+    Page<Integer> findIdsByStatus(@Param("status") PlantStatus status, Pageable pageable);
 
     /**
      * 查询出完整的 Plant 实体。
@@ -1,8 +1,12 @@
 package com.hellogreenfriends.backend.repository;
 
 import com.hellogreenfriends.backend.entity.Tag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,5 +21,13 @@ public interface TagRepository extends JpaRepository<Tag, Integer> {
      * @param name 标签名称
      * @return 包含标签实体的 Optional 对象
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Tag> findByName(String name);
+
+    /**
+     * 按ID批量查询标签，结果进入查询缓存，标签实体本身由二级缓存提供
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Tag> findAllById(Iterable<Integer> ids);
 }
@@ -1,7 +1,12 @@
 package com.hellogreenfriends.backend.repository;
 
 import com.hellogreenfriends.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -11,8 +16,19 @@ import java.util.Optional;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
+    /**
+     * 按用户名查找用户，登录时调用，结果进入查询缓存
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    /**
+     * 只查询用户状态，供 JWT 认证时检查用户是否被封禁
+     */
+    @Query("SELECT u.status FROM User u WHERE u.id = :id")
+    Optional<User.UserStatus> findStatusById(@Param("id") Integer id);
+
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 }
\ No newline at end of file
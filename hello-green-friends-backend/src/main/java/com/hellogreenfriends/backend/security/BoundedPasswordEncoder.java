@@ -0,0 +1,33 @@
+package com.hellogreenfriends.backend.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 把哈希和校验交给 PasswordHashingExecutor 执行的 PasswordEncoder
+ * 登录认证、注册和修改密码都经过这里，共享同一个有界线程池
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hellogreenfriends.backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户的控制器参数
+ * 参数类型为 JwtUserPrincipal 时直接取自令牌，不查询数据库；
+ * 参数类型为 User 时每个请求最多加载一次用户实体。未登录时返回 403。
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,53 @@
+package com.hellogreenfriends.backend.security;
+
+import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.service.UserService;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 解析 @CurrentUser 参数
+ * 加载过的 User 实体保存在请求属性中，同一请求内再次解析时直接复用。
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+
+    private final UserService userService;
+
+    public CurrentUserArgumentResolver(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (parameter.getParameterType() == JwtUserPrincipal.class || parameter.getParameterType() == User.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtUserPrincipal principal)) {
+            throw new SecurityException("Authentication is required to perform this action.");
+        }
+        if (parameter.getParameterType() == JwtUserPrincipal.class) {
+            return principal;
+        }
+        Object loaded = webRequest.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaded == null) {
+            loaded = userService.findUserById(principal.id());
+            webRequest.setAttribute(USER_ATTRIBUTE, loaded, RequestAttributes.SCOPE_REQUEST);
+        }
+        return loaded;
+    }
+}
@@ -3,15 +3,15 @@ package com.hellogreenfriends.backend.security;
 import com.hellogreenfriends.backend.entity.User;
 import com.hellogreenfriends.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-
+/**
+ * 登录时按用户名加载用户，之后的请求由 JWT 声明认证，不再经过这里
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
@@ -24,11 +24,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> 
                         new UsernameNotFoundException("User not found with username: " + username));
-                        
-        return new org.springframework.security.core.userdetails.User(
-            user.getUsername(),
-            user.getPasswordHash(),
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-        );
+
+        return new UserAccountDetails(user);
     }
 }
\ No newline at end of file
@@ -6,61 +6,92 @@ import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import com.hellogreenfriends.backend.entity.User;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * JWT 的签发与验证
+ * 签名密钥和解析器在启动时创建一次，之后所有请求共用（两者都是线程安全的）。
+ * 验证通过的令牌按其 SHA-256 摘要缓存声明直到过期，同一令牌的后续请求不再重复验签和解析 JSON；
+ * 缓存按最近使用淘汰，容量为 0 时不缓存。
+ */
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
 
-    @Value("${app.jwt.expiration-ms}")
-    private int jwtExpirationInMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int jwtExpirationInMs;
+    private final int claimsCacheSize;
 
-    // 根据 secret key 生成一个 SecretKey 对象
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(this.jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // 令牌摘要 -> 已验证的声明，按访问顺序排列，访问时锁住该 Map
+    private final LinkedHashMap<String, Claims> verifiedClaims;
+
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
+                            @Value("${app.jwt.expiration-ms}") int jwtExpirationInMs,
+                            @Value("${app.jwt.claims-cache-size:10000}") int claimsCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.claimsCacheSize = claimsCacheSize;
+        this.verifiedClaims = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > JwtTokenProvider.this.claimsCacheSize;
+            }
+        };
     }
 
-    // 为指定用户生成 JWT
+    // 为指定用户生成 JWT，携带用户ID、角色和状态，认证请求时无需再查询用户
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        UserAccountDetails userPrincipal = (UserAccountDetails) authentication.getPrincipal();
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, userPrincipal.getRole().name())
+                .claim(CLAIM_STATUS, userPrincipal.getStatus().name())
                 .issuedAt(new Date())
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+                .signWith(signingKey, Jwts.SIG.HS512)
                 .compact();
     }
 
-    // 从 JWT 中获取用户名
-    public String getUsernameFromJwt(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    // 验证 JWT 的有效性
-    public boolean validateToken(String authToken) {
+    // 验证 JWT 并返回其中的声明，无效或过期时返回 null
+    public Claims parseValidClaims(String authToken) {
+        String digest = authToken != null && claimsCacheSize > 0 ? digest(authToken) : null;
+        if (digest != null) {
+            Claims cached = cachedClaims(digest);
+            if (cached != null) {
+                return cached;
+            }
+        }
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
+            Claims claims = parser.parseSignedClaims(authToken).getPayload();
+            if (digest != null && claims.getExpiration() != null) {
+                synchronized (verifiedClaims) {
+                    verifiedClaims.put(digest, claims);
+                }
+            }
+            return claims;
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -70,6 +101,43 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty.");
         }
-        return false;
+        return null;
+    }
+
+    // 从声明中还原当前用户，缺少用户ID或角色（旧版本签发的令牌）时返回 null
+    public JwtUserPrincipal getPrincipalFromClaims(Claims claims) {
+        Integer userId = claims.get(CLAIM_USER_ID, Integer.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new JwtUserPrincipal(userId, claims.getSubject(), User.UserRole.valueOf(role));
+    }
+
+    // 签发令牌时用户是否处于正常状态
+    public boolean isIssuedToActiveUser(Claims claims) {
+        return User.UserStatus.ACTIVE.name().equals(claims.get(CLAIM_STATUS, String.class));
+    }
+
+    // 缓存中未过期的声明，已过期的条目顺便删除，之后重新解析时会按过期令牌处理
+    private Claims cachedClaims(String digest) {
+        synchronized (verifiedClaims) {
+            Claims claims = verifiedClaims.get(digest);
+            if (claims != null && !claims.getExpiration().after(new Date())) {
+                verifiedClaims.remove(digest);
+                return null;
+            }
+            return claims;
+        }
+    }
+
+    // 缓存键使用令牌的摘要，不在内存中保留完整令牌
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
-}
\ No newline at end of file
+}
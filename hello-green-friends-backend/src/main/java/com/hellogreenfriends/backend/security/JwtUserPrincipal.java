@@ -0,0 +1,19 @@
+package com.hellogreenfriends.backend.security;
+
+import com.hellogreenfriends.backend.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * 从已验证的 JWT 声明中还原的当前用户，不查询数据库
+ * getName() 返回用户名，控制器中的 Principal.getName() 行为保持不变
+ * @param id 用户ID
+ * @param username 用户名
+ * @param role 签发令牌时的用户角色
+ */
+public record JwtUserPrincipal(Integer id, String username, User.UserRole role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hellogreenfriends.backend.security;
+
+import com.hellogreenfriends.backend.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按用户名和客户端 IP 限制登录尝试频率（令牌桶）
+ * 每个桶的容量为每分钟允许的次数，按时间匀速补充；在提交密码校验之前检查，被限流的请求不占用哈希线程池。
+ * 两个桶都有令牌时才同时各取一个，被 IP 限流的请求不会消耗该用户名的额度，避免他人借此锁定用户。
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long REFILL_PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // 超过该数量时清理已经补满的桶
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final int userPerMinute;
+    private final int ipPerMinute;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginRateLimiter(@Value("${app.login.rate-limit.user-per-minute:10}") int userPerMinute,
+                            @Value("${app.login.rate-limit.ip-per-minute:30}") int ipPerMinute) {
+        this.userPerMinute = userPerMinute;
+        this.ipPerMinute = ipPerMinute;
+    }
+
+    /**
+     * 记录一次登录尝试，用户名或 IP 超出频率限制时抛出 TooManyRequestsException
+     */
+    public void acquire(String username, String clientIp) {
+        long now = System.nanoTime();
+        String userKey = "user:" + username;
+        String ipKey = "ip:" + clientIp;
+        long waitNanos;
+        // 检查和取令牌要对两个桶一起完成，否则并发请求可能只扣掉其中一个桶
+        synchronized (buckets) {
+            double userTokens = tokensOf(userKey, userPerMinute, now);
+            double ipTokens = tokensOf(ipKey, ipPerMinute, now);
+            waitNanos = Math.max(waitNanos(userTokens, userPerMinute), waitNanos(ipTokens, ipPerMinute));
+            if (waitNanos == 0) {
+                buckets.put(userKey, new Bucket(userTokens - 1, now));
+                buckets.put(ipKey, new Bucket(ipTokens - 1, now));
+            }
+        }
+        if (buckets.size() > CLEANUP_THRESHOLD) {
+            synchronized (buckets) {
+                buckets.entrySet().removeIf(entry -> entry.getValue().isFull(now, capacityOf(entry.getKey())));
+            }
+        }
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts, please try again later.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    // 桶中当前的令牌数，不存在的桶视为已补满
+    private double tokensOf(String key, int capacity, long now) {
+        Bucket bucket = buckets.get(key);
+        return bucket == null ? capacity : bucket.tokensAt(now, capacity);
+    }
+
+    // 有令牌时返回 0，否则返回补充一个令牌需要等待的纳秒数
+    private static long waitNanos(double tokens, int capacity) {
+        return tokens >= 1 ? 0 : (long) ((1 - tokens) * REFILL_PERIOD_NANOS / capacity);
+    }
+
+    private int capacityOf(String key) {
+        return key.startsWith("user:") ? userPerMinute : ipPerMinute;
+    }
+
+    private record Bucket(double tokens, long updatedAt) {
+
+        double tokensAt(long now, int capacity) {
+            return Math.min(capacity, tokens + (double) (now - updatedAt) * capacity / REFILL_PERIOD_NANOS);
+        }
+
+        boolean isFull(long now, int capacity) {
+            return tokensAt(now, capacity) >= capacity;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hellogreenfriends.backend.security;
+
+import com.hellogreenfriends.backend.dto.PasswordHashingStatsDTO;
+import com.hellogreenfriends.backend.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希和校验专用的有界线程池
+ * BCrypt 计算量大，集中登录时如果直接在请求线程上执行会占满 Tomcat 线程，拖慢普通的浏览请求。
+ * 这里限制同时计算的线程数和排队数量，队列满时立即返回 429，Retry-After 按当前排队长度估算。
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int queueCapacity;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(@Value("${app.password-hash.threads:2}") int threads,
+                                   @Value("${app.password-hash.queue-capacity:32}") int queueCapacity) {
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 在线程池中执行哈希计算并等待结果，线程池已满时抛出 TooManyRequestsException
+     */
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    totalHashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new TooManyRequestsException("Server is busy, please try again later.", retryAfterSeconds());
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    public PasswordHashingStatsDTO getStats() {
+        long count = completed.sum();
+        return new PasswordHashingStatsDTO(threads, executor.getActiveCount(), executor.getQueue().size(),
+                queueCapacity, count, rejected.sum(),
+                count == 0 ? 0 : totalWaitNanos.sum() / 1e6 / count,
+                count == 0 ? 0 : totalHashNanos.sum() / 1e6 / count,
+                maxHashNanos.get() / 1e6, 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 排在前面的任务全部完成所需的大致秒数，至少 1 秒
+    private long retryAfterSeconds() {
+        long count = completed.sum();
+        double averageNanos = count == 0 ? 1e8 : (double) totalHashNanos.sum() / count;
+        double seconds = (executor.getQueue().size() + threads) * averageNanos / threads / 1e9;
+        return Math.max(1, (long) Math.ceil(seconds));
+    }
+}
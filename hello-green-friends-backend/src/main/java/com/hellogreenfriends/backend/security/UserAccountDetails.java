@@ -0,0 +1,26 @@
+package com.hellogreenfriends.backend.security;
+
+import com.hellogreenfriends.backend.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * 登录认证使用的用户信息，额外携带生成令牌所需的用户ID、角色和状态
+ */
+@Getter
+public class UserAccountDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Integer id;
+    private final User.UserRole role;
+    private final User.UserStatus status;
+
+    public UserAccountDetails(User user) {
+        super(user.getUsername(), user.getPasswordHash(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        this.id = user.getId();
+        this.role = user.getRole();
+        this.status = user.getStatus();
+    }
+}
@@ -0,0 +1,59 @@
+package com.hellogreenfriends.backend.security;
+
+import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户当前状态的短期本地缓存
+ * JWT 中的状态声明只反映签发时的状态，每个用户每个有效期内最多查询一次数据库确认当前状态，
+ * 用户被封禁后最迟一个有效期后令牌失效；修改状态的代码可以调用 evict 立即生效。
+ */
+@Component
+public class UserStatusCache {
+
+    // 超过该数量时清理已过期的条目
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${app.jwt.status-cache-ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * 用户是否仍处于正常状态，用户不存在时返回 false
+     */
+    public boolean isActive(Integer userId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry == null || now - entry.expiresAt() > 0) {
+            User.UserStatus status = userRepository.findStatusById(userId).orElse(null);
+            entry = new Entry(status, now + ttlNanos);
+            entries.put(userId, entry);
+            if (entries.size() > CLEANUP_THRESHOLD) {
+                entries.values().removeIf(e -> now - e.expiresAt() > 0);
+            }
+        }
+        return entry.status() == User.UserStatus.ACTIVE;
+    }
+
+    /**
+     * 用户状态变更后调用，下一个请求重新查询
+     */
+    public void evict(Integer userId) {
+        entries.remove(userId);
+    }
+
+    private record Entry(User.UserStatus status, long expiresAt) {
+    }
+}
@@ -52,8 +52,8 @@ public class CommentService {
     public CommentDTO createComment(Integer plantId, Integer userId, String content, Integer parentCommentId) {
         Plant plant = plantRepository.findById(plantId)
             .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + plantId));
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        // 用户ID来自已验证的令牌，只取引用，不再查询用户
+        User user = userRepository.getReferenceById(userId);
 
         Comment newComment = new Comment();
         newComment.setPlant(plant);
@@ -70,15 +70,12 @@ public class CommentService {
     }
     
     @Transactional
-    public void deleteComment(Integer commentId, Integer currentUserId) {
+    public void deleteComment(Integer commentId, Integer currentUserId, User.UserRole currentUserRole) {
         Comment comment = commentRepository.findById(commentId)
             .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + commentId));
 
-        User currentUser = userRepository.findById(currentUserId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + currentUserId));
-
         if (comment.getUser() == null ||
-            (!comment.getUser().getId().equals(currentUserId) && currentUser.getRole() != User.UserRole.ADMIN)) {
+            (!comment.getUser().getId().equals(currentUserId) && currentUserRole != User.UserRole.ADMIN)) {
             throw new SecurityException("User is not authorized to delete this comment.");
         }
 
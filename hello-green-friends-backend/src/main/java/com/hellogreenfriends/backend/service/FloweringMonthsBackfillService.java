@@ -0,0 +1,71 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.repository.PlantRepository.FloweringPeriodView;
+import com.hellogreenfriends.backend.util.FloweringPeriodParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 花期月份掩码回填任务
+ * 应用启动后，为 flowering_months 为空的历史数据（包括 data.sql 导入的数据）解析花期并写入掩码
+ */
+@Service
+public class FloweringMonthsBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FloweringMonthsBackfillService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PlantRepository plantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public FloweringMonthsBackfillService(PlantRepository plantRepository, TransactionTemplate transactionTemplate) {
+        this.plantRepository = plantRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int total = backfill();
+        if (total > 0) {
+            logger.info("Backfilled flowering months for {} plants", total);
+        }
+    }
+
+    /**
+     * 分批回填月份掩码，每批一个事务
+     * 无法识别的花期写入 0，保证每条记录只处理一次
+     * @return 回填的记录数
+     */
+    public int backfill() {
+        int total = 0;
+        while (true) {
+            Integer processed = transactionTemplate.execute(status -> backfillBatch());
+            if (processed == null || processed == 0) {
+                return total;
+            }
+            total += processed;
+        }
+    }
+
+    private int backfillBatch() {
+        List<FloweringPeriodView> batch = plantRepository.findFloweringPeriodsToBackfill(PageRequest.of(0, BATCH_SIZE));
+        // 按掩码分组，同一掩码的记录用一条 UPDATE 写入
+        Map<Integer, List<Integer>> idsByMask = batch.stream()
+                .collect(Collectors.groupingBy(
+                        view -> FloweringPeriodParser.parse(view.getFloweringPeriod()),
+                        Collectors.mapping(FloweringPeriodView::getId, Collectors.toList())));
+        idsByMask.forEach(plantRepository::updateFloweringMonths);
+        return batch.size();
+    }
+}
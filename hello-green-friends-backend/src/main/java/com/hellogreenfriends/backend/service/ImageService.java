@@ -3,12 +3,15 @@ package com.hellogreenfriends.backend.service;
 import com.hellogreenfriends.backend.entity.Image;
 import com.hellogreenfriends.backend.entity.Plant;
 import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.event.PlantImagesChangedEvent;
 import com.hellogreenfriends.backend.exception.ResourceNotFoundException;
 import com.hellogreenfriends.backend.repository.ImageRepository;
 import com.hellogreenfriends.backend.repository.PlantRepository;
 import com.hellogreenfriends.backend.repository.UserRepository;
+import com.hellogreenfriends.backend.util.ResourceVersion;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -33,15 +36,18 @@ public class ImageService {
     private final ImageRepository imageRepository;
     private final PlantRepository plantRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ImageService(@Value("${file.upload-dir}") String uploadDir,
                         ImageRepository imageRepository,
                         PlantRepository plantRepository,
-                        UserRepository userRepository) {
+                        UserRepository userRepository,
+                        ApplicationEventPublisher eventPublisher) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
         this.imageRepository = imageRepository;
         this.plantRepository = plantRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
 
         // 确保文件存储目录存在
         try {
@@ -55,11 +61,11 @@ public class ImageService {
      * 存储用户上传的植物图片，并与 Plant 实体关联。
      * @param file 用户上传的文件
      * @param plantId 关联的植物 ID
-     * @param uploader 上传者的 User 实体
+     * @param uploaderId 上传者的用户 ID
      * @return 保存后的 Image 实体
      */
     @Transactional
-    public Image storeFile(MultipartFile file, Integer plantId, User uploader) {
+    public Image storeFile(MultipartFile file, Integer plantId, Integer uploaderId) {
 
         // 获取植物实体，如果不存在则抛出异常
         Plant plant = plantRepository.findById(plantId)
@@ -77,23 +83,25 @@ public class ImageService {
         // 创建 Image 实体并设置相关属性
         Image image = new Image();
         image.setPlant(plant); // 关联植物
-        image.setUploader(uploader); // 设置上传者
+        image.setUploader(userRepository.getReferenceById(uploaderId)); // 设置上传者，ID来自已验证的令牌，只取引用
         image.setImageUrl(fileDownloadUri); // 设置图片 URL
         image.setStatus(Image.ImageStatus.PENDING_REVIEW); // 默认设置为待审核状态
 
         // 保存 Image 实体
-        return imageRepository.save(image);
+        Image saved = imageRepository.save(image);
+        eventPublisher.publishEvent(new PlantImagesChangedEvent(plantId));
+        return saved;
     }
 
     /**
      * 为已发布的植物添加额外的图片。
      * @param plantId 植物 ID
-     * @param uploader 上传者
+     * @param uploaderId 上传者的用户 ID
      * @param file 图片文件
      * @return 保存后的 Image 实体
      */
     @Transactional
-    public Image addPlantImage(Integer plantId, User uploader, MultipartFile file) {
+    public Image addPlantImage(Integer plantId, Integer uploaderId, MultipartFile file) {
         // 确保植物存在且已发布
         Plant plant = plantRepository.findByIdAndStatus(plantId, Plant.PlantStatus.PUBLISHED)
                 .orElseThrow(() -> new ResourceNotFoundException("Published plant not found with id: " + plantId));
@@ -110,11 +118,13 @@ public class ImageService {
         // 创建 Image 实体并设置属性
         Image image = new Image();
         image.setPlant(plant);
-        image.setUploader(uploader);
+        image.setUploader(userRepository.getReferenceById(uploaderId));
         image.setImageUrl(fileDownloadUri);
         image.setStatus(Image.ImageStatus.PENDING_REVIEW); // 新上传的图片默认状态为待审核
 
-        return imageRepository.save(image);
+        Image saved = imageRepository.save(image);
+        eventPublisher.publishEvent(new PlantImagesChangedEvent(plantId));
+        return saved;
     }
 
     /**
@@ -127,19 +137,29 @@ public class ImageService {
         return imageRepository.findByPlantId(plantId);
     }
 
+    /**
+     * 获取植物图片列表的版本，用于条件请求
+     * @param plantId 植物 ID
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getImagesVersion(Integer plantId) {
+        ImageRepository.ImageVersionView view = imageRepository.findVersionByPlantId(plantId);
+        return ResourceVersion.of("images-" + plantId, view.getImageCount(),
+                view.getImagesUpdatedAt(), view.getUploadersUpdatedAt());
+    }
+
     /**
      * 删除指定ID的图片。只有图片的上传者或管理员才能删除。
      * @param imageId 要删除的图片ID
      * @param currentUserId 执行删除操作的用户ID
+     * @param currentUserRole 执行删除操作的用户角色
      */
     @Transactional
-    public void deleteImage(Integer imageId, Integer currentUserId) {
+    public void deleteImage(Integer imageId, Integer currentUserId, User.UserRole currentUserRole) {
         Image image = imageRepository.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Image not found with id: " + imageId));
-        User currentUser = userRepository.findById(currentUserId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + currentUserId));
         // 只有图片的上传者或者管理员才能删除图片
-        if (!image.getUploader().getId().equals(currentUserId) && currentUser.getRole() != User.UserRole.ADMIN) {
+        if (!image.getUploader().getId().equals(currentUserId) && currentUserRole != User.UserRole.ADMIN) {
             throw new SecurityException("User is not authorized to delete this image.");
         }
 
@@ -154,6 +174,7 @@ public class ImageService {
         }
         // 删除数据库中的记录
         imageRepository.delete(image);
+        eventPublisher.publishEvent(new PlantImagesChangedEvent(image.getPlant().getId()));
     }
 
     /**
@@ -1,25 +1,71 @@
 package com.hellogreenfriends.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellogreenfriends.backend.event.LocationCreatedEvent;
 import com.hellogreenfriends.backend.repository.LocationRepository;
+import com.hellogreenfriends.backend.util.JsonListSnapshot;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.List;
 
 /**
  * LocationService 类，用于处理地点相关的业务逻辑
+ * 区域名称只会在写入植物时新建地点才可能增加，因此保存在内存快照中，出现新区域后整体替换快照。
  */
 @Service
 public class LocationService {
     private final LocationRepository locationRepository;
-    public LocationService(LocationRepository locationRepository) {
+    private final ObjectMapper objectMapper;
+
+    // 加载快照和替换快照都在此锁内完成，避免旧的加载结果覆盖新快照
+    private final Object snapshotLock = new Object();
+    private volatile JsonListSnapshot<String> areaNamesSnapshot;
+
+    public LocationService(LocationRepository locationRepository, ObjectMapper objectMapper) {
         this.locationRepository = locationRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * 获取所有不重复的校区区域名称，用于前端筛选器
      */
-    @Transactional(readOnly = true)
     public List<String> getDistinctAreaNames() {
-        return locationRepository.findDistinctAreaNames();
+        return getAreaNamesSnapshot().items();
+    }
+
+    /**
+     * 获取区域名称快照，包含序列化好的响应体和 ETag
+     */
+    public JsonListSnapshot<String> getAreaNamesSnapshot() {
+        JsonListSnapshot<String> current = areaNamesSnapshot;
+        if (current == null) {
+            reloadSnapshot();
+            current = areaNamesSnapshot;
+        }
+        return current;
+    }
+
+    /**
+     * 应用启动后从数据库加载区域名称快照，排序沿用数据库的 ORDER BY
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadSnapshot() {
+        synchronized (snapshotLock) {
+            areaNamesSnapshot = JsonListSnapshot.of("areas", locationRepository.findDistinctAreaNames(), objectMapper);
+        }
+    }
+
+    /**
+     * 新地点提交后，只有出现了新的区域名称才重新加载快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationCreated(LocationCreatedEvent event) {
+        JsonListSnapshot<String> current = areaNamesSnapshot;
+        if (current != null && current.items().contains(event.getAreaName())) {
+            return;
+        }
+        reloadSnapshot();
     }
-}
\ No newline at end of file
+}
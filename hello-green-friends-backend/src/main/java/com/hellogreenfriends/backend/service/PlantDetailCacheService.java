@@ -0,0 +1,213 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.dto.CacheStatsDTO;
+import com.hellogreenfriends.backend.dto.ImageDTO;
+import com.hellogreenfriends.backend.dto.LocationDTO;
+import com.hellogreenfriends.backend.dto.PlantDTO;
+import com.hellogreenfriends.backend.dto.TagDTO;
+import com.hellogreenfriends.backend.dto.UserDTO;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
+import com.hellogreenfriends.backend.event.PlantImagesChangedEvent;
+import com.hellogreenfriends.backend.event.UserProfileChangedEvent;
+import com.hellogreenfriends.backend.exception.ResourceNotFoundException;
+import com.hellogreenfriends.backend.mapper.EntityMapper;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.util.WTinyLfuCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 植物详情缓存
+ * 缓存映射好的 PlantDTO，键为植物ID加版本号，容量按估算的字节数限制，淘汰策略为 W-TinyLFU。
+ * 植物、图片或嵌入的用户资料变更提交后递增该植物的版本号并删除旧条目；
+ * 加载期间发生的植物变更会使版本号不一致，发生的用户资料变更会使全局的用户资料纪元不一致，两种情况下加载结果都不会写入缓存。
+ * 返回的 DTO 在多个请求间共享，调用方不能修改。
+ */
+@Service
+public class PlantDetailCacheService {
+
+    private static final int EXPECTED_ENTRIES = 10_000;
+
+    // 估算对象大小时使用的固定开销（对象头、引用字段、集合结构）
+    private static final long OBJECT_OVERHEAD = 64;
+    private static final long STRING_OVERHEAD = 40;
+    private static final long DATE_TIME_SIZE = 48;
+
+    private final PlantRepository plantRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final WTinyLfuCache<CacheKey, PlantDTO> cache;
+
+    // 植物ID -> 当前版本号，未出现过的植物版本号为 0
+    private final ConcurrentHashMap<Integer, Long> versions = new ConcurrentHashMap<>();
+    // 用户ID -> 详情中嵌入了该用户资料（创建者或图片上传者）的缓存条目，条目被淘汰或失效时移除
+    private final ConcurrentHashMap<Integer, Set<CacheKey>> entriesByUser = new ConcurrentHashMap<>();
+    // 每次用户资料变更时递增
+    private final AtomicLong userProfileEpoch = new AtomicLong();
+
+    public PlantDetailCacheService(PlantRepository plantRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.cache.plant-detail.max-bytes:16777216}") long maxBytes) {
+        this.plantRepository = plantRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = new WTinyLfuCache<>(maxBytes, EXPECTED_ENTRIES, PlantDetailCacheService::weigh, this::forgetUsers);
+    }
+
+    /**
+     * 获取植物详情，未命中时用两次查询加载完整的关联数据并写入缓存
+     * @param plantId 植物ID
+     * @return 植物详情 DTO
+     */
+    public PlantDTO getPlantDetail(Integer plantId) {
+        long version = versions.getOrDefault(plantId, 0L);
+        CacheKey key = new CacheKey(plantId, version);
+        PlantDTO cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long epoch = userProfileEpoch.get();
+        PlantDTO loaded = readOnlyTransaction.execute(status -> load(plantId));
+        // 先登记用户再检查，检查之后提交的用户资料变更一定能找到并失效这个条目
+        rememberUsers(key, loaded);
+        if (versions.getOrDefault(plantId, 0L) == version && userProfileEpoch.get() == epoch) {
+            cache.put(key, loaded);
+        } else {
+            forgetUsers(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 使某个植物的缓存失效
+     */
+    public void invalidate(Integer plantId) {
+        long newVersion = versions.merge(plantId, 1L, Long::sum);
+        cache.invalidate(new CacheKey(plantId, newVersion - 1));
+    }
+
+    public CacheStatsDTO getStats() {
+        WTinyLfuCache.Stats stats = cache.stats();
+        return new CacheStatsDTO("plant-detail", stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), stats.entryCount(), stats.weightedSize(), stats.maximumWeight(), "bytes");
+    }
+
+    /**
+     * 植物编辑、删除、审核提交后失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlantChanged(PlantChangedEvent event) {
+        invalidate(event.getPlantId());
+    }
+
+    /**
+     * 植物图片新增或删除提交后失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlantImagesChanged(PlantImagesChangedEvent event) {
+        invalidate(event.getPlantId());
+    }
+
+    /**
+     * 用户修改昵称或头像后，失效所有嵌入了该用户资料的植物
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        userProfileEpoch.incrementAndGet();
+        Set<CacheKey> keys = entriesByUser.remove(event.getUserId());
+        if (keys != null) {
+            keys.forEach(key -> invalidate(key.plantId()));
+        }
+    }
+
+    // 第一次查询抓取创建者、标签和地点，第二次查询填充同一实体的图片及上传者
+    private PlantDTO load(Integer plantId) {
+        List<Plant> plants = plantRepository.findAllWithDetailsByIdIn(List.of(plantId));
+        if (plants.isEmpty()) {
+            throw new ResourceNotFoundException("Plant not found with id: " + plantId);
+        }
+        plantRepository.findWithImagesById(plantId);
+        return EntityMapper.toPlantDTO(plants.get(0));
+    }
+
+    private void rememberUsers(CacheKey key, PlantDTO dto) {
+        for (Integer userId : userIdsOf(dto)) {
+            entriesByUser.compute(userId, (id, keys) -> {
+                Set<CacheKey> result = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                result.add(key);
+                return result;
+            });
+        }
+    }
+
+    // 条目被淘汰或失效后移除登记，没有条目的用户一并移除
+    private void forgetUsers(CacheKey key, PlantDTO dto) {
+        for (Integer userId : userIdsOf(dto)) {
+            entriesByUser.computeIfPresent(userId, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Set<Integer> userIdsOf(PlantDTO dto) {
+        Set<Integer> userIds = new HashSet<>();
+        if (dto.getCreator() != null) {
+            userIds.add(dto.getCreator().getId());
+        }
+        for (ImageDTO image : dto.getImages()) {
+            if (image != null && image.getUploader() != null) {
+                userIds.add(image.getUploader().getId());
+            }
+        }
+        return userIds;
+    }
+
+    // 按字符串长度和对象数量估算 DTO 占用的字节数，不追求精确，只用于容量控制
+    private static long weigh(PlantDTO dto) {
+        long size = OBJECT_OVERHEAD + 2 * DATE_TIME_SIZE
+                + sizeOf(dto.getName()) + sizeOf(dto.getScientificName()) + sizeOf(dto.getFamilyGenus())
+                + sizeOf(dto.getMainImageUrl()) + sizeOf(dto.getFloweringPeriod()) + sizeOf(dto.getDescription())
+                + sizeOf(dto.getStatus()) + sizeOf(dto.getCreator());
+        for (TagDTO tag : dto.getTags()) {
+            size += OBJECT_OVERHEAD + (tag == null ? 0 : sizeOf(tag.getName()));
+        }
+        for (LocationDTO location : dto.getLocations()) {
+            if (location != null) {
+                size += OBJECT_OVERHEAD + sizeOf(location.getAreaName()) + sizeOf(location.getSpecificName())
+                        + sizeOf(location.getNotes());
+            }
+        }
+        for (ImageDTO image : dto.getImages()) {
+            if (image != null) {
+                size += OBJECT_OVERHEAD + DATE_TIME_SIZE + sizeOf(image.getImageUrl()) + sizeOf(image.getCaption())
+                        + sizeOf(image.getStatus()) + sizeOf(image.getUploader());
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOf(UserDTO user) {
+        if (user == null) {
+            return 0;
+        }
+        return OBJECT_OVERHEAD + sizeOf(user.getNickname()) + sizeOf(user.getAvatarUrl())
+                + sizeOf(user.getUsername()) + sizeOf(user.getEmail()) + sizeOf(user.getRole());
+    }
+
+    private static long sizeOf(String text) {
+        return text == null ? 0 : STRING_OVERHEAD + 2L * text.length();
+    }
+
+    private record CacheKey(Integer plantId, long version) {
+    }
+}
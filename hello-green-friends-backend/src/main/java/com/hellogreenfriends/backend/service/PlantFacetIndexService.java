@@ -0,0 +1,397 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.config.AsyncConfig;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.entity.PlantLocation;
+import com.hellogreenfriends.backend.entity.Tag;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
+import com.hellogreenfriends.backend.event.PlantsImportedEvent;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.util.FloweringPeriodParser;
+import com.hellogreenfriends.backend.util.IndexRebuildGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 已发布植物的内存倒排索引
+ * 以植物ID为下标，为每个标签、区域和花期月份维护一个位图，
+ * 图鉴页的筛选条件转化为位图的与/或运算，只有最终这一页的数据才需要从数据库加载。
+ * 应用启动时全量构建，之后在植物写操作的事务提交后按植物增量更新。
+ */
+@Service
+public class PlantFacetIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantFacetIndexService.class);
+
+    private final PlantRepository plantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下状态均受 lock 保护
+    private BitSet published = new BitSet();
+    private Map<Integer, BitSet> byTag = new HashMap<>();
+    private Map<String, BitSet> byArea = new HashMap<>();
+    private BitSet[] byMonth = newMonthBitmaps();
+    // 每个已索引植物当前的筛选属性，增量更新时用来清除旧的位
+    private Map<Integer, PlantFacets> facetsByPlant = new HashMap<>();
+
+    private final IndexRebuildGuard rebuildGuard = new IndexRebuildGuard();
+
+    public PlantFacetIndexService(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * 索引是否已完成首次构建，未就绪时调用方应回退到数据库查询
+     */
+    public boolean isReady() {
+        return rebuildGuard.isReady();
+    }
+
+    /**
+     * 计算符合筛选条件的已发布植物ID集合
+     * @param tagIds 标签ID (可选)
+     * @param matchAllTags 为 true 时要求同时包含所有标签，否则包含任一标签即可
+     * @param periodMask 花期月份掩码 (可选)
+     * @param areaNames 区域名称 (可选)，包含任一区域即可
+     * @return 匹配的植物ID位图，调用方可以自由修改
+     */
+    public BitSet match(Collection<Integer> tagIds, boolean matchAllTags, Integer periodMask, Collection<String> areaNames) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) published.clone();
+            andIfPresent(result, tagBits(tagIds, matchAllTags));
+            andIfPresent(result, areaBits(areaNames));
+            andIfPresent(result, monthBits(periodMask));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在一次读锁内计算当前筛选条件下各标签、区域和月份的植物数量
+     * 每个维度的计数忽略该维度自身的筛选条件（按全部标签匹配时除外），
+     * 这样已选中的标签旁边仍能显示其他可切换标签的数量
+     * @return 各维度的计数，未出现的键表示数量为 0
+     */
+    public FacetCounts countFacets(Collection<Integer> tagIds, boolean matchAllTags, Integer periodMask, Collection<String> areaNames) {
+        lock.readLock().lock();
+        try {
+            BitSet tags = tagBits(tagIds, matchAllTags);
+            BitSet areas = areaBits(areaNames);
+            BitSet months = monthBits(periodMask);
+
+            BitSet total = (BitSet) published.clone();
+            andIfPresent(total, tags);
+            andIfPresent(total, areas);
+            andIfPresent(total, months);
+
+            BitSet tagBase = (BitSet) published.clone();
+            andIfPresent(tagBase, matchAllTags ? tags : null);
+            andIfPresent(tagBase, areas);
+            andIfPresent(tagBase, months);
+            Map<Integer, Integer> tagCounts = new HashMap<>();
+            byTag.forEach((tagId, bits) -> tagCounts.put(tagId, andCardinality(tagBase, bits)));
+
+            BitSet areaBase = (BitSet) published.clone();
+            andIfPresent(areaBase, tags);
+            andIfPresent(areaBase, months);
+            Map<String, Integer> areaCounts = new HashMap<>();
+            byArea.forEach((area, bits) -> areaCounts.put(area, andCardinality(areaBase, bits)));
+
+            BitSet monthBase = (BitSet) published.clone();
+            andIfPresent(monthBase, tags);
+            andIfPresent(monthBase, areas);
+            int[] monthCounts = new int[12];
+            for (int i = 0; i < 12; i++) {
+                monthCounts[i] = andCardinality(monthBase, byMonth[i]);
+            }
+            return new FacetCounts(total.cardinality(), tagCounts, areaCounts, monthCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按ID升序从位图中取出一页
+     * @param ids 匹配的植物ID位图
+     * @param offset 跳过的条数
+     * @param limit 最多返回的条数
+     */
+    public static List<Integer> page(BitSet ids, long offset, int limit) {
+        List<Integer> result = new ArrayList<>(limit);
+        int id = ids.nextSetBit(0);
+        for (long skipped = 0; id >= 0 && skipped < offset; skipped++) {
+            id = ids.nextSetBit(id + 1);
+        }
+        while (id >= 0 && result.size() < limit) {
+            result.add(id);
+            id = ids.nextSetBit(id + 1);
+        }
+        return result;
+    }
+
+    /**
+     * 按ID降序从位图中取出一页
+     */
+    public static List<Integer> pageDescending(BitSet ids, long offset, int limit) {
+        List<Integer> result = new ArrayList<>(limit);
+        int id = ids.previousSetBit(ids.length() - 1);
+        for (long skipped = 0; id >= 0 && skipped < offset; skipped++) {
+            id = ids.previousSetBit(id - 1);
+        }
+        while (id >= 0 && result.size() < limit) {
+            result.add(id);
+            id = id > 0 ? ids.previousSetBit(id - 1) : -1;
+        }
+        return result;
+    }
+
+    /**
+     * 应用启动后全量构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 批量导入植物后在专用线程中全量重建，导入请求不等待重建完成
+     */
+    @Async(AsyncConfig.INDEX_REBUILD_EXECUTOR)
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onPlantsImported(PlantsImportedEvent event) {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 索引未就绪时构建一次，已有线程在构建时等待其完成，调用方应先用 isReady() 判断以免每次都开启事务
+     */
+    @Transactional(readOnly = true)
+    public void ensureReady() {
+        rebuildGuard.ensureReady(this::load, this::refresh);
+    }
+
+    private void load() {
+        Map<Integer, PlantFacets> loaded = new HashMap<>();
+        plantRepository.findPublishedPlantMonths().forEach(view ->
+                loaded.put(view.getPlantId(), new PlantFacets(new HashSet<>(), new HashSet<>(),
+                        monthsOf(view.getFloweringMonths(), view.getFloweringPeriod()))));
+        plantRepository.findPublishedPlantTags().forEach(view -> {
+            PlantFacets facets = loaded.get(view.getPlantId());
+            if (facets != null) {
+                facets.tagIds().add(view.getTagId());
+            }
+        });
+        plantRepository.findPublishedPlantAreas().forEach(view -> {
+            PlantFacets facets = loaded.get(view.getPlantId());
+            if (facets != null && view.getAreaName() != null) {
+                facets.areaNames().add(view.getAreaName());
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            published = new BitSet();
+            byTag = new HashMap<>();
+            byArea = new HashMap<>();
+            byMonth = newMonthBitmaps();
+            facetsByPlant = new HashMap<>();
+            loaded.forEach(this::addBits);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Plant facet index built with {} published plants", loaded.size());
+    }
+
+    /**
+     * 植物写操作提交后，重新加载该植物并更新索引
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPlantChanged(PlantChangedEvent event) {
+        rebuildGuard.markChanged(event.getPlantId());
+        refresh(event.getPlantId());
+    }
+
+    private void refresh(Integer plantId) {
+        List<Plant> plants = plantRepository.findAllWithDetailsByIdIn(List.of(plantId));
+        PlantFacets facets = null;
+        if (!plants.isEmpty() && plants.get(0).getStatus() == Plant.PlantStatus.PUBLISHED) {
+            facets = facetsOf(plants.get(0));
+        }
+        lock.writeLock().lock();
+        try {
+            removeBits(plantId);
+            if (facets != null) {
+                addBits(plantId, facets);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addBits(Integer plantId, PlantFacets facets) {
+        published.set(plantId);
+        facets.tagIds().forEach(tagId -> byTag.computeIfAbsent(tagId, key -> new BitSet()).set(plantId));
+        facets.areaNames().forEach(area -> byArea.computeIfAbsent(area, key -> new BitSet()).set(plantId));
+        for (int month = 1; month <= 12; month++) {
+            if (FloweringPeriodParser.containsMonth(facets.months(), month)) {
+                byMonth[month - 1].set(plantId);
+            }
+        }
+        facetsByPlant.put(plantId, facets);
+    }
+
+    private void removeBits(Integer plantId) {
+        PlantFacets old = facetsByPlant.remove(plantId);
+        if (old == null) {
+            return;
+        }
+        published.clear(plantId);
+        old.tagIds().forEach(tagId -> clearAndPrune(byTag, tagId, plantId));
+        old.areaNames().forEach(area -> clearAndPrune(byArea, area, plantId));
+        for (BitSet month : byMonth) {
+            month.clear(plantId);
+        }
+    }
+
+    // 清除位后如果位图为空则移除该键，避免已删除的标签或区域一直留在索引中
+    private static <K> void clearAndPrune(Map<K, BitSet> bitmaps, K key, int plantId) {
+        BitSet bits = bitmaps.get(key);
+        if (bits != null) {
+            bits.clear(plantId);
+            if (bits.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    // 以下三个方法返回对应维度的筛选位图，未指定该维度时返回 null，调用方需持有读锁
+    private BitSet tagBits(Collection<Integer> tagIds, boolean matchAllTags) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return null;
+        }
+        return matchAllTags ? intersect(byTag, tagIds) : union(byTag, tagIds);
+    }
+
+    private BitSet areaBits(Collection<String> areaNames) {
+        if (areaNames == null || areaNames.isEmpty()) {
+            return null;
+        }
+        return union(byArea, areaNames);
+    }
+
+    private BitSet monthBits(Integer periodMask) {
+        if (periodMask == null) {
+            return null;
+        }
+        BitSet months = new BitSet();
+        for (int month = 1; month <= 12; month++) {
+            if (FloweringPeriodParser.containsMonth(periodMask, month)) {
+                months.or(byMonth[month - 1]);
+            }
+        }
+        return months;
+    }
+
+    private static void andIfPresent(BitSet target, BitSet filter) {
+        if (filter != null) {
+            target.and(filter);
+        }
+    }
+
+    private static int andCardinality(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    private static <K> BitSet union(Map<K, BitSet> bitmaps, Collection<K> keys) {
+        BitSet result = new BitSet();
+        for (K key : keys) {
+            BitSet bits = bitmaps.get(key);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static <K> BitSet intersect(Map<K, BitSet> bitmaps, Collection<K> keys) {
+        BitSet result = null;
+        for (K key : keys) {
+            BitSet bits = bitmaps.get(key);
+            if (bits == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) bits.clone();
+            } else {
+                result.and(bits);
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    private static PlantFacets facetsOf(Plant plant) {
+        Set<Integer> tagIds = plant.getTags() == null ? Collections.emptySet()
+                : plant.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+        Set<String> areaNames = plant.getPlantLocations() == null ? Collections.emptySet()
+                : plant.getPlantLocations().stream()
+                        .map(PlantLocation::getLocation)
+                        .filter(location -> location != null && location.getAreaName() != null)
+                        .map(location -> location.getAreaName())
+                        .collect(Collectors.toSet());
+        return new PlantFacets(tagIds, areaNames, monthsOf(plant.getFloweringMonths(), plant.getFloweringPeriod()));
+    }
+
+    // 回填任务尚未执行时 floweringMonths 可能为空，此时直接解析花期文本
+    private static int monthsOf(Integer floweringMonths, String floweringPeriod) {
+        return floweringMonths != null ? floweringMonths : FloweringPeriodParser.parse(floweringPeriod);
+    }
+
+    private static BitSet[] newMonthBitmaps() {
+        BitSet[] months = new BitSet[12];
+        for (int i = 0; i < months.length; i++) {
+            months[i] = new BitSet();
+        }
+        return months;
+    }
+
+    /**
+     * 筛选维度计数结果
+     * @param total 符合全部筛选条件的植物数
+     * @param tagCounts 标签ID到植物数
+     * @param areaCounts 区域名称到植物数
+     * @param monthCounts 下标 0-11 分别对应 1-12 月的植物数
+     */
+    public record FacetCounts(int total, Map<Integer, Integer> tagCounts, Map<String, Integer> areaCounts, int[] monthCounts) {
+    }
+
+    private record PlantFacets(Set<Integer> tagIds, Set<String> areaNames, int months) {
+    }
+}
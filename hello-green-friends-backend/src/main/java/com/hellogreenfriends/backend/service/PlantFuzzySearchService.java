@@ -0,0 +1,283 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.config.AsyncConfig;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.entity.PlantLocation;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
+import com.hellogreenfriends.backend.event.PlantsImportedEvent;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.util.IndexRebuildGuard;
+import com.hellogreenfriends.backend.util.PinyinConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 植物名称和地点名称的模糊搜索索引
+ * 每个名称生成三个检索键：原文、全拼和拼音首字母，如 "银杏" 对应 "银杏"、"yinxing"、"yx"。
+ * 所有检索键按单字和相邻两字建立倒排表，查询时取查询串各片段的候选集合求交，
+ * 再对少量候选做子串校验，不需要对数据库执行 %query% 扫描。
+ * 地点只会随植物一起写入，因此植物写操作的事件同时覆盖了地点名称的变化。
+ */
+@Service
+public class PlantFuzzySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantFuzzySearchService.class);
+
+    // 各类检索键的得分，名称优先于地点，原文优先于全拼，全拼优先于首字母
+    private static final int NAME_TEXT = 100;
+    private static final int NAME_PINYIN = 60;
+    private static final int NAME_INITIALS = 50;
+    private static final int LOCATION_TEXT = 30;
+    private static final int LOCATION_PINYIN = 20;
+    private static final int LOCATION_INITIALS = 15;
+    // 前缀匹配和完全匹配的加分
+    private static final int PREFIX_BONUS = 10;
+    private static final int EXACT_BONUS = 20;
+
+    private final PlantRepository plantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下状态均受 lock 保护
+    // 片段（单字或两字） -> 植物ID
+    private Map<String, Set<Integer>> grams = new HashMap<>();
+    // 植物ID -> 检索键
+    private Map<Integer, List<SearchKey>> keysByPlant = new HashMap<>();
+
+    private final IndexRebuildGuard rebuildGuard = new IndexRebuildGuard();
+
+    public PlantFuzzySearchService(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    public boolean isReady() {
+        return rebuildGuard.isReady();
+    }
+
+    /**
+     * 按中文片段、全拼或拼音首字母模糊搜索已发布植物
+     * @param query 搜索关键词，如 "玉兰"、"yulan"、"yl"
+     * @return 按匹配程度从高到低排列的植物ID，得分相同时按ID升序
+     */
+    public List<Integer> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Integer> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = candidates(normalized);
+            for (Integer plantId : candidates) {
+                int best = 0;
+                for (SearchKey key : keysByPlant.get(plantId)) {
+                    if (key.text().contains(normalized)) {
+                        int score = key.weight();
+                        if (key.text().equals(normalized)) {
+                            score += EXACT_BONUS;
+                        } else if (key.text().startsWith(normalized)) {
+                            score += PREFIX_BONUS;
+                        }
+                        best = Math.max(best, score);
+                    }
+                }
+                if (best > 0) {
+                    scores.put(plantId, best);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Integer> result = new ArrayList<>(scores.keySet());
+        result.sort(Comparator.comparing((Integer id) -> scores.get(id)).reversed().thenComparing(Comparator.naturalOrder()));
+        return result;
+    }
+
+    /**
+     * 应用启动后全量构建索引，只查询名称列，不加载植物实体
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 批量导入植物后在专用线程中全量重建，导入请求不等待重建完成
+     */
+    @Async(AsyncConfig.INDEX_REBUILD_EXECUTOR)
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onPlantsImported(PlantsImportedEvent event) {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 索引未就绪时构建一次，已有线程在构建时等待其完成，调用方应先用 isReady() 判断以免每次都开启事务
+     */
+    @Transactional(readOnly = true)
+    public void ensureReady() {
+        rebuildGuard.ensureReady(this::load, this::refresh);
+    }
+
+    private void load() {
+        Map<Integer, List<SearchKey>> loaded = new HashMap<>();
+        plantRepository.findPublishedPlantNames().forEach(view ->
+                addKeys(loaded.computeIfAbsent(view.getPlantId(), key -> new ArrayList<>()),
+                        view.getName(), NAME_TEXT, NAME_PINYIN, NAME_INITIALS));
+        plantRepository.findPublishedPlantSpecificNames().forEach(view -> {
+            List<SearchKey> keys = loaded.get(view.getPlantId());
+            if (keys != null) {
+                addKeys(keys, view.getSpecificName(), LOCATION_TEXT, LOCATION_PINYIN, LOCATION_INITIALS);
+            }
+        });
+        Map<String, Set<Integer>> newGrams = new HashMap<>();
+        loaded.forEach((plantId, keys) -> indexKeys(plantId, keys, newGrams));
+
+        lock.writeLock().lock();
+        try {
+            grams = newGrams;
+            keysByPlant = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Plant fuzzy search index built with {} plants and {} grams", loaded.size(), newGrams.size());
+    }
+
+    /**
+     * 植物写操作（包括随植物一起写入的地点）提交后，重新加载该植物并更新索引
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPlantChanged(PlantChangedEvent event) {
+        rebuildGuard.markChanged(event.getPlantId());
+        refresh(event.getPlantId());
+    }
+
+    private void refresh(Integer plantId) {
+        List<Plant> plants = plantRepository.findAllWithDetailsByIdIn(List.of(plantId));
+        List<SearchKey> keys = null;
+        if (!plants.isEmpty() && plants.get(0).getStatus() == Plant.PlantStatus.PUBLISHED) {
+            Plant plant = plants.get(0);
+            keys = new ArrayList<>();
+            addKeys(keys, plant.getName(), NAME_TEXT, NAME_PINYIN, NAME_INITIALS);
+            if (plant.getPlantLocations() != null) {
+                for (PlantLocation plantLocation : plant.getPlantLocations()) {
+                    if (plantLocation.getLocation() != null) {
+                        addKeys(keys, plantLocation.getLocation().getSpecificName(),
+                                LOCATION_TEXT, LOCATION_PINYIN, LOCATION_INITIALS);
+                    }
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            List<SearchKey> old = keysByPlant.remove(plantId);
+            if (old != null) {
+                for (SearchKey key : old) {
+                    for (String gram : gramsOf(key.text())) {
+                        Set<Integer> ids = grams.get(gram);
+                        if (ids != null) {
+                            ids.remove(plantId);
+                            if (ids.isEmpty()) {
+                                grams.remove(gram);
+                            }
+                        }
+                    }
+                }
+            }
+            if (keys != null) {
+                keysByPlant.put(plantId, keys);
+                indexKeys(plantId, keys, grams);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 查询串的每个片段都必须出现在候选植物的某个检索键中，从最小的集合开始求交
+    private Set<Integer> candidates(String normalized) {
+        List<Set<Integer>> sets = new ArrayList<>();
+        for (String gram : gramsOf(normalized)) {
+            Set<Integer> ids = grams.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            sets.add(ids);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        Set<Integer> result = new HashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result.retainAll(sets.get(i));
+        }
+        return result;
+    }
+
+    private static void addKeys(List<SearchKey> keys, String text, int textWeight, int pinyinWeight, int initialsWeight) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        keys.add(new SearchKey(normalized, textWeight));
+        String pinyin = PinyinConverter.toPinyin(normalized);
+        if (!pinyin.isEmpty() && !pinyin.equals(normalized)) {
+            keys.add(new SearchKey(pinyin, pinyinWeight));
+            keys.add(new SearchKey(PinyinConverter.toInitials(normalized), initialsWeight));
+        }
+    }
+
+    private static void indexKeys(Integer plantId, List<SearchKey> keys, Map<String, Set<Integer>> grams) {
+        for (SearchKey key : keys) {
+            for (String gram : gramsOf(key.text())) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(plantId);
+            }
+        }
+    }
+
+    // 单字和相邻两字片段，按码点切分
+    private static Set<String> gramsOf(String text) {
+        int[] chars = text.codePoints().toArray();
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < chars.length; i++) {
+            result.add(new String(chars, i, 1));
+            if (i + 1 < chars.length) {
+                result.add(new String(chars, i, 2));
+            }
+        }
+        return result;
+    }
+
+    // 转小写并去掉空白和标点，"Yin Xing" 与 "yinxing" 视为相同
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        text.toLowerCase(Locale.ROOT).codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(sb::appendCodePoint);
+        return sb.toString();
+    }
+
+    private record SearchKey(String text, int weight) {
+    }
+}
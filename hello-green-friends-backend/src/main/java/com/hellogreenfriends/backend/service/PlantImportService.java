@@ -0,0 +1,455 @@
+package com.hellogreenfriends.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hellogreenfriends.backend.dto.PlantCreateDTO;
+import com.hellogreenfriends.backend.dto.PlantImportErrorDTO;
+import com.hellogreenfriends.backend.dto.PlantImportResultDTO;
+import com.hellogreenfriends.backend.entity.Location;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.entity.PlantLocation;
+import com.hellogreenfriends.backend.entity.Tag;
+import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.event.LocationCreatedEvent;
+import com.hellogreenfriends.backend.event.PlantsImportedEvent;
+import com.hellogreenfriends.backend.repository.LocationRepository;
+import com.hellogreenfriends.backend.repository.PlantLocationRepository;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.repository.TagRepository;
+import com.hellogreenfriends.backend.repository.UserRepository;
+import com.hellogreenfriends.backend.util.FloweringPeriodParser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 植物批量导入
+ * 请求体逐行流式解析（NDJSON 每行一个 PlantCreateDTO，CSV 第一行为表头），内存中只保留当前一批数据。
+ * 标签ID和已有地点在导入开始时一次性加载到内存中匹配，新地点随所在批次一起插入。
+ * 每批在独立事务中写入，插入按 JDBC 批量执行；某一批写入失败时逐行重试，找出具体出错的行。
+ * 导入结束后发布 PlantsImportedEvent，各内存索引在专用线程中异步全量重建，不逐个发布植物变更事件。
+ */
+@Service
+public class PlantImportService {
+
+    /**
+     * 导入文件格式
+     * NDJSON: 每行一个 JSON 对象，字段与 PlantCreateDTO 相同
+     * CSV: 表头列为 name, scientificName, description, floweringPeriod, status, tagIds, locations，
+     *      tagIds 以分号分隔，locations 以分号分隔，每个地点为 区域|具体名称|X坐标|Y坐标（坐标可省略），
+     *      字段中的逗号、引号和换行按 RFC 4180 用双引号括起，字段内的双引号写成两个双引号
+     */
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of(
+            "name", "scientificname", "description", "floweringperiod", "status", "tagids", "locations");
+
+    private final PlantRepository plantRepository;
+    private final TagRepository tagRepository;
+    private final LocationRepository locationRepository;
+    private final PlantLocationRepository plantLocationRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    // 请求开启了 Open Session In View，各批次共用同一个持久化上下文，每批写完后需要清空
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PlantImportService(PlantRepository plantRepository,
+                              TagRepository tagRepository,
+                              LocationRepository locationRepository,
+                              PlantLocationRepository plantLocationRepository,
+                              UserRepository userRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.plantRepository = plantRepository;
+        this.tagRepository = tagRepository;
+        this.locationRepository = locationRepository;
+        this.plantLocationRepository = plantLocationRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowReader = objectMapper.readerFor(PlantCreateDTO.class);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 导入植物
+     * @param input 请求体
+     * @param format 文件格式
+     * @param creatorId 导入的植物记在该用户名下
+     * @return 导入结果和逐行错误
+     */
+    public PlantImportResultDTO importPlants(InputStream input, Format format, Integer creatorId) throws IOException {
+        long startedAt = System.nanoTime();
+        ImportState state = new ImportState(
+                tagRepository.findAll().stream().map(Tag::getId).collect(Collectors.toSet()),
+                locationRepository.findAll().stream().collect(Collectors.toMap(
+                        location -> new LocationKey(location.getAreaName(), location.getSpecificName()),
+                        Location::getId, (first, second) -> first)));
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordLine = lineNumber;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                // 引号内的换行属于字段内容，继续读取直到引号闭合
+                if (format == Format.CSV) {
+                    String next;
+                    while (hasOpenQuote(line) && (next = reader.readLine()) != null) {
+                        lineNumber++;
+                        line = line + "\n" + next;
+                    }
+                }
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+                state.totalRows++;
+                try {
+                    PlantCreateDTO dto = format == Format.NDJSON ? rowReader.readValue(line) : parseCsvRow(line, csvColumns);
+                    validate(dto, state);
+                    chunk.add(new ImportRow(recordLine, dto));
+                } catch (JsonProcessingException ex) {
+                    state.fail(recordLine, "Invalid JSON: " + ex.getOriginalMessage());
+                } catch (IllegalArgumentException ex) {
+                    state.fail(recordLine, ex.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, creatorId, state);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, creatorId, state);
+        }
+
+        for (Location location : state.createdLocations) {
+            eventPublisher.publishEvent(new LocationCreatedEvent(location.getId(), location.getAreaName()));
+        }
+        if (state.imported > 0) {
+            eventPublisher.publishEvent(new PlantsImportedEvent(state.imported));
+        }
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        logger.info("Imported {} of {} plants in {} ms", state.imported, state.totalRows, elapsedMillis);
+        return new PlantImportResultDTO(state.totalRows, state.imported, state.failed,
+                state.createdLocations.size(), elapsedMillis, state.errors);
+    }
+
+    // 在独立事务中写入一批，失败时逐行重试
+    private void writeChunk(List<ImportRow> rows, Integer creatorId, ImportState state) {
+        try {
+            Map<LocationKey, Location> newLocations = transactionTemplate.execute(status -> {
+                Map<LocationKey, Location> created = persistRows(rows, creatorId, state.locationIds);
+                entityManager.flush();
+                entityManager.clear();
+                return created;
+            });
+            newLocations.forEach((key, location) -> state.locationIds.put(key, location.getId()));
+            state.createdLocations.addAll(newLocations.values());
+            state.imported += rows.size();
+        } catch (RuntimeException ex) {
+            // 回滚后持久化上下文中可能残留本批的实体，重试前显式清空，不依赖事务管理器的处理
+            entityManager.clear();
+            if (rows.size() == 1) {
+                state.fail(rows.get(0).line(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                return;
+            }
+            for (ImportRow row : rows) {
+                writeChunk(List.of(row), creatorId, state);
+            }
+        }
+    }
+
+    // 创建植物、新地点和植物地点关联，返回本批新建的地点
+    private Map<LocationKey, Location> persistRows(List<ImportRow> rows, Integer creatorId, Map<LocationKey, Integer> locationIds) {
+        User creator = userRepository.getReferenceById(creatorId);
+        Set<Integer> tagIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.dto().getTagIds() != null) {
+                row.dto().getTagIds().forEach(id -> tagIds.add(id.intValue()));
+            }
+        }
+        Map<Integer, Tag> tags = tagRepository.findAllById(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+
+        Map<LocationKey, Location> newLocations = new LinkedHashMap<>();
+        List<Plant> plants = new ArrayList<>(rows.size());
+        List<PlantLocation> plantLocations = new ArrayList<>();
+        for (ImportRow row : rows) {
+            PlantCreateDTO dto = row.dto();
+            Plant plant = new Plant();
+            plant.setName(dto.getName());
+            plant.setScientificName(dto.getScientificName());
+            plant.setDescription(dto.getDescription());
+            plant.setFloweringPeriod(dto.getFloweringPeriod());
+            plant.setFloweringMonths(FloweringPeriodParser.parse(dto.getFloweringPeriod()));
+            plant.setStatus(dto.getStatus() != null && !dto.getStatus().isEmpty()
+                    ? Plant.PlantStatus.valueOf(dto.getStatus()) : Plant.PlantStatus.DRAFT);
+            plant.setCreator(creator);
+            if (dto.getTagIds() != null) {
+                dto.getTagIds().forEach(id -> plant.getTags().add(tags.get(id.intValue())));
+            }
+            plants.add(plant);
+
+            if (dto.getLocations() != null) {
+                Set<LocationKey> linked = new HashSet<>();
+                for (PlantCreateDTO.LocationInfo locInfo : dto.getLocations()) {
+                    LocationKey key = new LocationKey(locInfo.getAreaName(), locInfo.getSpecificName());
+                    if (!linked.add(key)) {
+                        continue;
+                    }
+                    Integer locationId = locationIds.get(key);
+                    PlantLocation plantLocation = new PlantLocation();
+                    plantLocation.setPlant(plant);
+                    plantLocation.setLocation(locationId != null
+                            ? locationRepository.getReferenceById(locationId)
+                            : newLocations.computeIfAbsent(key, k -> newLocation(locInfo)));
+                    plantLocations.add(plantLocation);
+                }
+            }
+        }
+        locationRepository.saveAll(newLocations.values());
+        plantRepository.saveAll(plants);
+        plantLocationRepository.saveAll(plantLocations);
+        return newLocations;
+    }
+
+    private static Location newLocation(PlantCreateDTO.LocationInfo locInfo) {
+        Location location = new Location();
+        location.setAreaName(locInfo.getAreaName());
+        location.setSpecificName(locInfo.getSpecificName());
+        location.setMapCoordX(locInfo.getMapCoordX());
+        location.setMapCoordY(locInfo.getMapCoordY());
+        return location;
+    }
+
+    // 写入前检查，出错的行不进入批次
+    private static void validate(PlantCreateDTO dto, ImportState state) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new IllegalArgumentException("Plant name is required.");
+        }
+        if (dto.getStatus() != null && !dto.getStatus().isEmpty()) {
+            try {
+                Plant.PlantStatus.valueOf(dto.getStatus());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown plant status: " + dto.getStatus());
+            }
+        }
+        if (dto.getTagIds() != null) {
+            for (Long tagId : dto.getTagIds()) {
+                if (tagId == null || !state.tagIds.contains(tagId.intValue())) {
+                    throw new IllegalArgumentException("Unknown tag id: " + tagId);
+                }
+            }
+        }
+        if (dto.getLocations() != null) {
+            for (PlantCreateDTO.LocationInfo locInfo : dto.getLocations()) {
+                if (locInfo == null || isBlank(locInfo.getAreaName()) || isBlank(locInfo.getSpecificName())) {
+                    throw new IllegalArgumentException("Location area name and specific name are required.");
+                }
+            }
+        }
+    }
+
+    // 表头列名不区分大小写，返回列名到列序号的映射
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names = parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + names.get(i));
+            }
+            columns.put(name, i);
+        }
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must contain a name column.");
+        }
+        return columns;
+    }
+
+    private static PlantCreateDTO parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = parseCsvLine(line);
+        PlantCreateDTO dto = new PlantCreateDTO();
+        dto.setName(field(fields, columns, "name"));
+        dto.setScientificName(field(fields, columns, "scientificname"));
+        dto.setDescription(field(fields, columns, "description"));
+        dto.setFloweringPeriod(field(fields, columns, "floweringperiod"));
+        dto.setStatus(field(fields, columns, "status"));
+
+        String tagIds = field(fields, columns, "tagids");
+        if (tagIds != null) {
+            Set<Long> ids = new LinkedHashSet<>();
+            for (String id : tagIds.split(";")) {
+                if (!id.isBlank()) {
+                    ids.add(parseNumber(id, "tag id", Long::valueOf));
+                }
+            }
+            dto.setTagIds(ids);
+        }
+
+        String locations = field(fields, columns, "locations");
+        if (locations != null) {
+            List<PlantCreateDTO.LocationInfo> infos = new ArrayList<>();
+            for (String location : locations.split(";")) {
+                if (location.isBlank()) {
+                    continue;
+                }
+                String[] parts = location.split("\\|", -1);
+                PlantCreateDTO.LocationInfo info = new PlantCreateDTO.LocationInfo();
+                info.setAreaName(parts[0].trim());
+                info.setSpecificName(parts.length > 1 ? parts[1].trim() : null);
+                if (parts.length > 2 && !parts[2].isBlank()) {
+                    info.setMapCoordX(parseNumber(parts[2], "coordinate", Float::valueOf));
+                }
+                if (parts.length > 3 && !parts[3].isBlank()) {
+                    info.setMapCoordY(parseNumber(parts[3], "coordinate", Float::valueOf));
+                }
+                infos.add(info);
+            }
+            dto.setLocations(infos);
+        }
+        return dto;
+    }
+
+    // 列不存在或内容为空时返回 null
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static <T> T parseNumber(String text, String what, Function<String, T> parser) {
+        try {
+            return parser.apply(text.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + text.trim());
+        }
+    }
+
+    // 按 RFC 4180 拆分一行，双引号内的逗号不分隔，连续两个双引号表示一个双引号
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted CSV field.");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    // 双引号个数为奇数时说明有未闭合的引号字段（转义的两个双引号不影响奇偶）
+    private static boolean hasOpenQuote(String text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    private record ImportRow(long line, PlantCreateDTO dto) {
+    }
+
+    // 地点的自然键
+    private record LocationKey(String areaName, String specificName) {
+    }
+
+    // 一次导入过程中的计数、错误和已知的标签、地点
+    private static final class ImportState {
+        private final Set<Integer> tagIds;
+        private final Map<LocationKey, Integer> locationIds;
+        private final List<Location> createdLocations = new ArrayList<>();
+        private final List<PlantImportErrorDTO> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+
+        private ImportState(Set<Integer> tagIds, Map<LocationKey, Integer> locationIds) {
+            this.tagIds = tagIds;
+            this.locationIds = locationIds;
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PlantImportErrorDTO(line, message));
+            }
+        }
+    }
+}
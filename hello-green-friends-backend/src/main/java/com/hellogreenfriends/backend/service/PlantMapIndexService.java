@@ -0,0 +1,535 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.config.AsyncConfig;
+import com.hellogreenfriends.backend.dto.PlantMapClusterDTO;
+import com.hellogreenfriends.backend.dto.PlantMapDeltaDTO;
+import com.hellogreenfriends.backend.dto.PlantMapPointDTO;
+import com.hellogreenfriends.backend.dto.PlantMapTileDTO;
+import com.hellogreenfriends.backend.dto.TagDTO;
+import com.hellogreenfriends.backend.entity.Location;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.entity.PlantLocation;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
+import com.hellogreenfriends.backend.event.PlantsImportedEvent;
+import com.hellogreenfriends.backend.mapper.EntityMapper;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.util.IndexRebuildGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 地图点位的内存空间索引
+ * 每个已发布植物在每个有坐标的地点上对应一个点位，点位按坐标放入边长为 cellSize 的均匀网格，
+ * 视口查询只需遍历与视口相交的网格。应用启动时全量构建，之后在植物写操作的事务提交后按植物增量更新。
+ * 索引中的 PlantMapPointDTO 对象构建后不再修改，可以直接返回给调用方。
+ * 另外为 0 到 MAX_CLUSTER_ZOOM 的每个缩放级别预先维护一层聚合网格，级别每降低一级网格边长加倍，
+ * 点位增删时只更新每层中它所在的那一个聚合。
+ * 点位每次变化都会递增版本号并生成新的不可变快照，同时记录变更日志，客户端可以按版本号增量同步。
+ * 地图瓦片与聚合使用相同的分级网格，按需生成后缓存，点位变化时只清除新旧点位所在的瓦片。
+ */
+@Service
+public class PlantMapIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantMapIndexService.class);
+
+    // 最大缩放级别，该级别的聚合网格与空间索引网格大小相同
+    public static final int MAX_CLUSTER_ZOOM = 5;
+
+    // 瓦片坐标上限，防止换算成网格坐标时溢出
+    private static final int MAX_TILE_INDEX = 1 << 20;
+
+    // 变更日志最多保留的条数，更早的版本只能全量同步
+    private static final int MAX_CHANGE_LOG = 10000;
+
+    private final PlantRepository plantRepository;
+    private final float cellSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下状态均受 lock 保护
+    // 植物ID -> 该植物的全部点位
+    private Map<Integer, List<PlantMapPointDTO>> pointsByPlant = new HashMap<>();
+    // 网格编号 -> 落在该网格内的点位
+    private Map<Long, List<PlantMapPointDTO>> grid = new HashMap<>();
+    // 缩放级别 -> (聚合网格编号 -> 聚合)
+    private List<Map<Long, Cluster>> clustersByZoom = newClusterLevels();
+    private final ArrayDeque<Change> changeLog = new ArrayDeque<>();
+    // 能够增量同步的最早版本，早于该版本的客户端需要全量同步
+    private long baseVersion;
+
+    // 当前版本的全部点位，每次变化后整体替换，读取时不需要加锁
+    // 版本号以启动时间为起点，保证应用重启后版本号仍然递增，旧进程的版本号会被识别为过期
+    private volatile MapSnapshot snapshot = new MapSnapshot(System.currentTimeMillis(), List.of());
+
+    // 已生成的非空瓦片，在读锁内写入、在写锁内清除，保证不会缓存过期内容
+    private final Map<Long, PlantMapTileDTO> tileCache = new ConcurrentHashMap<>();
+
+    private final IndexRebuildGuard rebuildGuard = new IndexRebuildGuard();
+
+    public PlantMapIndexService(PlantRepository plantRepository,
+                                @Value("${app.map.grid-cell-size:100}") float cellSize) {
+        this.plantRepository = plantRepository;
+        this.cellSize = cellSize;
+    }
+
+    public boolean isReady() {
+        return rebuildGuard.isReady();
+    }
+
+    /**
+     * 获取当前版本的全部点位快照，点位按植物ID排序
+     */
+    public MapSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 获取自 sinceVersion 之后发生变化的植物点位
+     * 变化的植物返回其当前的全部点位，客户端应整体替换该植物原有的点位；已没有点位的植物放在 removedPlantIds 中。
+     * sinceVersion 过早（变更日志已截断或来自重启前的进程）或晚于当前版本时返回全量数据，full 为 true
+     */
+    public PlantMapDeltaDTO getDelta(long sinceVersion) {
+        lock.readLock().lock();
+        try {
+            MapSnapshot current = snapshot;
+            if (sinceVersion < baseVersion || sinceVersion > current.version()) {
+                return new PlantMapDeltaDTO(current.version(), true, current.points(), List.of());
+            }
+            Set<Integer> changedPlantIds = new TreeSet<>();
+            Iterator<Change> changes = changeLog.descendingIterator();
+            while (changes.hasNext()) {
+                Change change = changes.next();
+                if (change.version() <= sinceVersion) {
+                    break;
+                }
+                changedPlantIds.add(change.plantId());
+            }
+            List<PlantMapPointDTO> upserts = new ArrayList<>();
+            List<Integer> removed = new ArrayList<>();
+            for (Integer plantId : changedPlantIds) {
+                List<PlantMapPointDTO> points = pointsByPlant.get(plantId);
+                if (points == null) {
+                    removed.add(plantId);
+                } else {
+                    upserts.addAll(points);
+                }
+            }
+            return new PlantMapDeltaDTO(current.version(), false, upserts, removed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取落在矩形视口内（含边界）的点位
+     */
+    public List<PlantMapPointDTO> getPointsInViewport(float minX, float minY, float maxX, float maxY) {
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Invalid viewport: min must not be greater than max.");
+        }
+        List<PlantMapPointDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int fromCellX = cellOf(minX);
+            int toCellX = cellOf(maxX);
+            int fromCellY = cellOf(minY);
+            int toCellY = cellOf(maxY);
+            // 视口远大于点位分布范围时，逐个遍历网格不如直接遍历已有的网格
+            long viewportCells = (long) (toCellX - fromCellX + 1) * (toCellY - fromCellY + 1);
+            if (viewportCells > grid.size()) {
+                grid.values().forEach(points -> addInside(points, minX, minY, maxX, maxY, result));
+            } else {
+                for (int cx = fromCellX; cx <= toCellX; cx++) {
+                    for (int cy = fromCellY; cy <= toCellY; cy++) {
+                        List<PlantMapPointDTO> points = grid.get(cellKey(cx, cy));
+                        if (points != null) {
+                            addInside(points, minX, minY, maxX, maxY, result);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort((a, b) -> Integer.compare(a.getPlantId(), b.getPlantId()));
+        return result;
+    }
+
+    /**
+     * 获取指定缩放级别的点位聚合
+     * @param zoom 缩放级别，0 为最粗，MAX_CLUSTER_ZOOM 为最细
+     * @param viewport 可选的视口 {minX, minY, maxX, maxY}，只返回中心落在视口内的聚合
+     * @return 按聚合网格排列的聚合列表
+     */
+    public List<PlantMapClusterDTO> getClusters(int zoom, float[] viewport) {
+        if (zoom < 0 || zoom > MAX_CLUSTER_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_CLUSTER_ZOOM + ".");
+        }
+        List<PlantMapClusterDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            clustersByZoom.get(zoom).entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> {
+                        Cluster cluster = entry.getValue();
+                        float x = (float) (cluster.sumX / cluster.count);
+                        float y = (float) (cluster.sumY / cluster.count);
+                        if (viewport != null && (x < viewport[0] || y < viewport[1] || x > viewport[2] || y > viewport[3])) {
+                            return;
+                        }
+                        Integer representativeId = cluster.plantIds.firstKey();
+                        PlantMapPointDTO representative = pointsByPlant.get(representativeId).get(0);
+                        result.add(new PlantMapClusterDTO(x, y, cluster.count, representativeId,
+                                representative.getName(), representative.getMainImageUrl()));
+                    });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 获取地图瓦片
+     * 缩放级别 z 的瓦片边长与同级聚合网格相同，瓦片 (x, y) 覆盖 [x * 边长, (x + 1) * 边长) 范围内的点位
+     * @return 瓦片内容，没有点位时返回空瓦片
+     */
+    public PlantMapTileDTO getTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_CLUSTER_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_CLUSTER_ZOOM + ".");
+        }
+        if (x < 0 || y < 0 || x >= MAX_TILE_INDEX || y >= MAX_TILE_INDEX) {
+            throw new IllegalArgumentException("Tile coordinates out of range.");
+        }
+        lock.readLock().lock();
+        try {
+            long key = tileKey(z, x, y);
+            PlantMapTileDTO cached = tileCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            PlantMapTileDTO tile = buildTile(z, x, y);
+            // 空瓦片不缓存，避免任意坐标的请求占用内存
+            if (tile.getPlantIds().length > 0) {
+                tileCache.put(key, tile);
+            }
+            return tile;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 应用启动后全量构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 批量导入植物后在专用线程中全量重建，导入请求不等待重建完成
+     */
+    @Async(AsyncConfig.INDEX_REBUILD_EXECUTOR)
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onPlantsImported(PlantsImportedEvent event) {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 索引未就绪时构建一次，已有线程在构建时等待其完成，调用方应先用 isReady() 判断以免每次都开启事务
+     */
+    @Transactional(readOnly = true)
+    public void ensureReady() {
+        rebuildGuard.ensureReady(this::load, this::refresh);
+    }
+
+    private void load() {
+        Map<Integer, List<PlantMapPointDTO>> newPointsByPlant = new HashMap<>();
+        Map<Long, List<PlantMapPointDTO>> newGrid = new HashMap<>();
+        List<Map<Long, Cluster>> newClusters = newClusterLevels();
+        for (Plant plant : plantRepository.findPublishedPlantsForMap()) {
+            List<PlantMapPointDTO> points = pointsOf(plant);
+            if (!points.isEmpty()) {
+                newPointsByPlant.put(plant.getId(), points);
+                points.forEach(point -> addToGrid(newGrid, point));
+                points.forEach(point -> addToClusters(newClusters, point));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            pointsByPlant = newPointsByPlant;
+            grid = newGrid;
+            clustersByZoom = newClusters;
+            changeLog.clear();
+            tileCache.clear();
+            long version = snapshot.version() + 1;
+            baseVersion = version;
+            publishSnapshot(version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Plant map index built with {} plants in {} grid cells", newPointsByPlant.size(), newGrid.size());
+    }
+
+    /**
+     * 植物写操作（包括地点变化）提交后，重新加载该植物并更新索引
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPlantChanged(PlantChangedEvent event) {
+        rebuildGuard.markChanged(event.getPlantId());
+        refresh(event.getPlantId());
+    }
+
+    private void refresh(Integer plantId) {
+        List<Plant> plants = plantRepository.findAllWithDetailsByIdIn(List.of(plantId));
+        List<PlantMapPointDTO> points = Collections.emptyList();
+        if (!plants.isEmpty() && plants.get(0).getStatus() == Plant.PlantStatus.PUBLISHED) {
+            points = pointsOf(plants.get(0));
+        }
+        lock.writeLock().lock();
+        try {
+            List<PlantMapPointDTO> old = pointsByPlant.remove(plantId);
+            // 地点集合没有顺序，按集合比较
+            boolean changed = !new HashSet<>(old == null ? List.of() : old).equals(new HashSet<>(points));
+            if (old != null) {
+                old.forEach(this::removeFromGrid);
+                old.forEach(this::removeFromClusters);
+            }
+            if (!points.isEmpty()) {
+                pointsByPlant.put(plantId, points);
+                points.forEach(point -> addToGrid(grid, point));
+                points.forEach(point -> addToClusters(clustersByZoom, point));
+            }
+            // 只修改了简介等与地图无关的字段时不产生新版本
+            if (changed) {
+                invalidateTiles(old);
+                invalidateTiles(points);
+                long version = snapshot.version() + 1;
+                changeLog.addLast(new Change(version, plantId));
+                if (changeLog.size() > MAX_CHANGE_LOG) {
+                    baseVersion = changeLog.removeFirst().version();
+                }
+                publishSnapshot(version);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 生成新版本的不可变快照，调用方需持有写锁
+    private void publishSnapshot(long version) {
+        List<PlantMapPointDTO> points = pointsByPlant.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .flatMap(entry -> entry.getValue().stream())
+                .collect(Collectors.toUnmodifiableList());
+        snapshot = new MapSnapshot(version, points);
+    }
+
+    // 瓦片边长是网格边长的整数倍，直接由对应的网格拼成，调用方需持有读锁
+    private PlantMapTileDTO buildTile(int z, int x, int y) {
+        int cellsPerTile = 1 << (MAX_CLUSTER_ZOOM - z);
+        List<PlantMapPointDTO> points = new ArrayList<>();
+        for (int cx = x * cellsPerTile; cx < (x + 1) * cellsPerTile; cx++) {
+            for (int cy = y * cellsPerTile; cy < (y + 1) * cellsPerTile; cy++) {
+                List<PlantMapPointDTO> cell = grid.get(cellKey(cx, cy));
+                if (cell != null) {
+                    points.addAll(cell);
+                }
+            }
+        }
+        points.sort((a, b) -> Integer.compare(a.getPlantId(), b.getPlantId()));
+
+        Map<Integer, Integer> tagIndex = new LinkedHashMap<>();
+        List<TagDTO> tags = new ArrayList<>();
+        for (PlantMapPointDTO point : points) {
+            for (TagDTO tag : point.getTags()) {
+                if (!tagIndex.containsKey(tag.getId())) {
+                    tagIndex.put(tag.getId(), tags.size());
+                    tags.add(tag);
+                }
+            }
+        }
+        int tagWords = (tags.size() + 63) / 64;
+        int[] plantIds = new int[points.size()];
+        float[] xs = new float[points.size()];
+        float[] ys = new float[points.size()];
+        long[] tagBits = new long[points.size() * tagWords];
+        for (int i = 0; i < points.size(); i++) {
+            PlantMapPointDTO point = points.get(i);
+            plantIds[i] = point.getPlantId();
+            xs[i] = point.getMapCoordX();
+            ys[i] = point.getMapCoordY();
+            for (TagDTO tag : point.getTags()) {
+                int bit = tagIndex.get(tag.getId());
+                tagBits[i * tagWords + bit / 64] |= 1L << (bit % 64);
+            }
+        }
+        return new PlantMapTileDTO(z, x, y, snapshot.version(), plantIds, xs, ys, tags, tagWords, tagBits);
+    }
+
+    // 清除这些点位在各级所在的瓦片，调用方需持有写锁
+    private void invalidateTiles(List<PlantMapPointDTO> points) {
+        if (points == null) {
+            return;
+        }
+        for (PlantMapPointDTO point : points) {
+            for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+                float size = cellSize * (1 << (MAX_CLUSTER_ZOOM - zoom));
+                tileCache.remove(tileKey(zoom, (int) Math.floor(point.getMapCoordX() / size),
+                        (int) Math.floor(point.getMapCoordY() / size)));
+            }
+        }
+    }
+
+    // 缩放级别占高 4 位，x、y 各占 30 位
+    private static long tileKey(int z, int x, int y) {
+        return ((long) z << 60) | ((x & 0x3FFFFFFFL) << 30) | (y & 0x3FFFFFFFL);
+    }
+
+    private void addToGrid(Map<Long, List<PlantMapPointDTO>> target, PlantMapPointDTO point) {
+        target.computeIfAbsent(cellKey(cellOf(point.getMapCoordX()), cellOf(point.getMapCoordY())), key -> new ArrayList<>())
+                .add(point);
+    }
+
+    private void removeFromGrid(PlantMapPointDTO point) {
+        long key = cellKey(cellOf(point.getMapCoordX()), cellOf(point.getMapCoordY()));
+        List<PlantMapPointDTO> points = grid.get(key);
+        if (points != null) {
+            points.remove(point);
+            if (points.isEmpty()) {
+                grid.remove(key);
+            }
+        }
+    }
+
+    private void addToClusters(List<Map<Long, Cluster>> levels, PlantMapPointDTO point) {
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            levels.get(zoom).computeIfAbsent(clusterKey(zoom, point), key -> new Cluster()).add(point);
+        }
+    }
+
+    private void removeFromClusters(PlantMapPointDTO point) {
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            Map<Long, Cluster> level = clustersByZoom.get(zoom);
+            long key = clusterKey(zoom, point);
+            Cluster cluster = level.get(key);
+            if (cluster != null && cluster.remove(point)) {
+                level.remove(key);
+            }
+        }
+    }
+
+    // 级别每降低一级，聚合网格边长加倍
+    private long clusterKey(int zoom, PlantMapPointDTO point) {
+        float size = cellSize * (1 << (MAX_CLUSTER_ZOOM - zoom));
+        return cellKey((int) Math.floor(point.getMapCoordX() / size), (int) Math.floor(point.getMapCoordY() / size));
+    }
+
+    private static List<Map<Long, Cluster>> newClusterLevels() {
+        List<Map<Long, Cluster>> levels = new ArrayList<>(MAX_CLUSTER_ZOOM + 1);
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            levels.add(new HashMap<>());
+        }
+        return levels;
+    }
+
+    private static void addInside(List<PlantMapPointDTO> points, float minX, float minY, float maxX, float maxY,
+                                  List<PlantMapPointDTO> result) {
+        for (PlantMapPointDTO point : points) {
+            float x = point.getMapCoordX();
+            float y = point.getMapCoordY();
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                result.add(point);
+            }
+        }
+    }
+
+    private int cellOf(float coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 某一版本的全部地图点位
+     */
+    public record MapSnapshot(long version, List<PlantMapPointDTO> points) {
+    }
+
+    private record Change(long version, int plantId) {
+    }
+
+    // 一个聚合网格内点位的计数和坐标和，plantIds 记录各植物的点位数，代表植物取其中ID最小的
+    private static final class Cluster {
+        private int count;
+        private double sumX;
+        private double sumY;
+        private final TreeMap<Integer, Integer> plantIds = new TreeMap<>();
+
+        private void add(PlantMapPointDTO point) {
+            count++;
+            sumX += point.getMapCoordX();
+            sumY += point.getMapCoordY();
+            plantIds.merge(point.getPlantId(), 1, Integer::sum);
+        }
+
+        // 返回移除后聚合是否为空
+        private boolean remove(PlantMapPointDTO point) {
+            count--;
+            sumX -= point.getMapCoordX();
+            sumY -= point.getMapCoordY();
+            plantIds.computeIfPresent(point.getPlantId(), (id, n) -> n > 1 ? n - 1 : null);
+            return count <= 0;
+        }
+    }
+
+    // 与原 getMapPoints 的映射一致：每个有坐标的地点对应一个点位
+    private static List<PlantMapPointDTO> pointsOf(Plant plant) {
+        if (plant.getPlantLocations() == null) {
+            return Collections.emptyList();
+        }
+        List<TagDTO> tags = plant.getTags() == null ? Collections.emptyList()
+                : plant.getTags().stream().map(EntityMapper::toTagDTO).collect(Collectors.toList());
+        List<PlantMapPointDTO> points = new ArrayList<>();
+        for (PlantLocation plantLocation : plant.getPlantLocations()) {
+            Location location = plantLocation.getLocation();
+            if (location == null || location.getMapCoordX() == null || location.getMapCoordY() == null) {
+                continue;
+            }
+            points.add(new PlantMapPointDTO(plant.getId(), plant.getName(), plant.getScientificName(), tags,
+                    plant.getMainImageUrl(), location.getMapCoordX(), location.getMapCoordY()));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,267 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.config.AsyncConfig;
+import com.hellogreenfriends.backend.entity.Location;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.entity.PlantLocation;
+import com.hellogreenfriends.backend.entity.Tag;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
+import com.hellogreenfriends.backend.event.PlantsImportedEvent;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.util.IndexRebuildGuard;
+import com.hellogreenfriends.backend.util.SearchTokenizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 已发布植物的内存全文索引
+ * 对名称、学名、科属、简介、标签名和地点名分词后建立倒排表，查询时按 BM25 计算相关度。
+ * 各字段的词频按权重累加（名称命中比简介命中更重要），文档长度同样按权重计算。
+ * 应用启动时全量构建，之后在植物写操作的事务提交后按植物增量更新。
+ */
+@Service
+public class PlantSearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantSearchIndexService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // BM25 参数
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // 字段权重
+    private static final float NAME_BOOST = 3.0f;
+    private static final float SCIENTIFIC_NAME_BOOST = 2.0f;
+    private static final float TAG_BOOST = 2.0f;
+    private static final float FAMILY_GENUS_BOOST = 1.5f;
+    private static final float LOCATION_BOOST = 1.5f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+
+    private final PlantRepository plantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下状态均受 lock 保护
+    // 词 -> (植物ID -> 加权词频)
+    private Map<String, Map<Integer, Float>> postings = new HashMap<>();
+    // 植物ID -> 加权文档长度
+    private Map<Integer, Float> docLengths = new HashMap<>();
+    // 植物ID -> 该植物包含的词，增量更新时用来清除旧的倒排项
+    private Map<Integer, Set<String>> docTerms = new HashMap<>();
+    private double totalLength = 0;
+
+    private final IndexRebuildGuard rebuildGuard = new IndexRebuildGuard();
+
+    // 全量重建时每批加载完后清空，已处理的植物不再留在持久化上下文中
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PlantSearchIndexService(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    public boolean isReady() {
+        return rebuildGuard.isReady();
+    }
+
+    /**
+     * 按相关度搜索已发布植物
+     * @param query 搜索关键词
+     * @return 按相关度从高到低排列的植物ID，相关度相同时按ID升序
+     */
+    public List<Integer> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = docLengths.size();
+            if (docCount == 0) {
+                return new ArrayList<>();
+            }
+            double avgLength = totalLength / docCount;
+            for (String term : terms) {
+                Map<Integer, Float> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                docs.forEach((plantId, tf) -> {
+                    double norm = K1 * (1 - B + B * docLengths.get(plantId) / avgLength);
+                    scores.merge(plantId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> result = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> result.add(entry.getKey()));
+        return result;
+    }
+
+    /**
+     * 应用启动后全量构建索引，按ID分批加载植物，每批处理完后清空持久化上下文，避免一次性读入所有简介
+     * 使用独立的事务和持久化上下文，清空时不会影响调用方已加载的实体
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void rebuild() {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 批量导入植物后在专用线程中全量重建，导入请求不等待重建完成
+     */
+    @Async(AsyncConfig.INDEX_REBUILD_EXECUTOR)
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPlantsImported(PlantsImportedEvent event) {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 索引未就绪时构建一次，已有线程在构建时等待其完成，调用方应先用 isReady() 判断以免每次都开启事务
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void ensureReady() {
+        rebuildGuard.ensureReady(this::load, this::refresh);
+    }
+
+    private void load() {
+        Map<String, Map<Integer, Float>> newPostings = new HashMap<>();
+        Map<Integer, Float> newDocLengths = new HashMap<>();
+        Map<Integer, Set<String>> newDocTerms = new HashMap<>();
+        double newTotalLength = 0;
+
+        List<Integer> ids = plantRepository.findPublishedIds();
+        for (int from = 0; from < ids.size(); from += REBUILD_BATCH_SIZE) {
+            List<Integer> batch = ids.subList(from, Math.min(from + REBUILD_BATCH_SIZE, ids.size()));
+            for (Plant plant : plantRepository.findAllWithDetailsByIdIn(batch)) {
+                newTotalLength += addDocument(plant.getId(), termsOf(plant), newPostings, newDocLengths, newDocTerms);
+            }
+            entityManager.clear();
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            docLengths = newDocLengths;
+            docTerms = newDocTerms;
+            totalLength = newTotalLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Plant search index built with {} documents and {} terms", newDocLengths.size(), newPostings.size());
+    }
+
+    /**
+     * 植物写操作提交后，重新加载该植物并更新索引
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPlantChanged(PlantChangedEvent event) {
+        rebuildGuard.markChanged(event.getPlantId());
+        refresh(event.getPlantId());
+    }
+
+    private void refresh(Integer plantId) {
+        List<Plant> plants = plantRepository.findAllWithDetailsByIdIn(List.of(plantId));
+        Map<String, Float> terms = null;
+        if (!plants.isEmpty() && plants.get(0).getStatus() == Plant.PlantStatus.PUBLISHED) {
+            terms = termsOf(plants.get(0));
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(plantId);
+            if (terms != null) {
+                totalLength += addDocument(plantId, terms, postings, docLengths, docTerms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static float addDocument(Integer plantId, Map<String, Float> terms,
+                                     Map<String, Map<Integer, Float>> postings, Map<Integer, Float> docLengths,
+                                     Map<Integer, Set<String>> docTerms) {
+        float length = 0;
+        for (Map.Entry<String, Float> entry : terms.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(plantId, entry.getValue());
+            length += entry.getValue();
+        }
+        docLengths.put(plantId, length);
+        docTerms.put(plantId, terms.keySet());
+        return length;
+    }
+
+    // 调用方需持有写锁
+    private void removeDocument(Integer plantId) {
+        Float length = docLengths.remove(plantId);
+        if (length == null) {
+            return;
+        }
+        totalLength -= length;
+        for (String term : docTerms.remove(plantId)) {
+            Map<Integer, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(plantId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // 计算植物各字段分词后的加权词频
+    private static Map<String, Float> termsOf(Plant plant) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, plant.getName(), NAME_BOOST);
+        addField(terms, plant.getScientificName(), SCIENTIFIC_NAME_BOOST);
+        addField(terms, plant.getFamilyGenus(), FAMILY_GENUS_BOOST);
+        addField(terms, plant.getDescription(), DESCRIPTION_BOOST);
+        if (plant.getTags() != null) {
+            for (Tag tag : plant.getTags()) {
+                addField(terms, tag.getName(), TAG_BOOST);
+            }
+        }
+        if (plant.getPlantLocations() != null) {
+            for (PlantLocation plantLocation : plant.getPlantLocations()) {
+                Location location = plantLocation.getLocation();
+                if (location != null) {
+                    addField(terms, location.getAreaName(), LOCATION_BOOST);
+                    addField(terms, location.getSpecificName(), LOCATION_BOOST);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float boost) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            terms.merge(token, boost, Float::sum);
+        }
+    }
+}
@@ -1,32 +1,65 @@
 package com.hellogreenfriends.backend.service;
 
+import com.hellogreenfriends.backend.aspect.SingleFlight;
+import com.hellogreenfriends.backend.dto.CursorPageDTO;
 import com.hellogreenfriends.backend.dto.PlantCreateDTO;
 import com.hellogreenfriends.backend.dto.PlantDTO;
+import com.hellogreenfriends.backend.dto.FacetCountDTO;
+import com.hellogreenfriends.backend.dto.PlantFacetsDTO;
+import com.hellogreenfriends.backend.dto.PlantFilterDTO;
+import com.hellogreenfriends.backend.dto.PlantSummaryDTO;
+import com.hellogreenfriends.backend.dto.PlantMapClusterDTO;
+import com.hellogreenfriends.backend.dto.PlantMapDeltaDTO;
 import com.hellogreenfriends.backend.dto.PlantMapPointDTO;
+import com.hellogreenfriends.backend.dto.PlantMapTileDTO;
 import com.hellogreenfriends.backend.dto.PlantStatusUpdateDTO;
+import com.hellogreenfriends.backend.dto.SuggestionDTO;
+import com.hellogreenfriends.backend.dto.TagDTO;
 import com.hellogreenfriends.backend.entity.Location;
 import com.hellogreenfriends.backend.entity.Plant;
 import com.hellogreenfriends.backend.entity.PlantLocation;
 import com.hellogreenfriends.backend.entity.User;
 import com.hellogreenfriends.backend.entity.Tag;
+import com.hellogreenfriends.backend.event.LocationCreatedEvent;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
 import com.hellogreenfriends.backend.exception.ResourceNotFoundException;
 import com.hellogreenfriends.backend.mapper.EntityMapper;
 import com.hellogreenfriends.backend.repository.*;
+import com.hellogreenfriends.backend.util.FloweringPeriodParser;
+import com.hellogreenfriends.backend.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * PlantService 类处理植物相关的业务逻辑
  * 包括创建、更新、删除植物信息，以及获取植物列表和详情
+ * 标注 @SingleFlight 的只读方法在并发相同调用时只执行一次，返回值在调用方之间共享
  */
 @Service
 @RequiredArgsConstructor
@@ -38,6 +71,14 @@ public class PlantService {
     private final LocationRepository locationRepository;
     private final PlantLocationRepository plantLocationRepository;
     private final ImageService imageService;
+    private final TagService tagService;
+    private final PlantFacetIndexService facetIndexService;
+    private final PlantSearchIndexService searchIndexService;
+    private final PlantFuzzySearchService fuzzySearchService;
+    private final PlantSuggestService suggestService;
+    private final PlantMapIndexService mapIndexService;
+    private final PlantDetailCacheService plantDetailCacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建新的植物实体
@@ -49,9 +90,8 @@ public class PlantService {
     @Transactional
     public Plant createPlant(PlantCreateDTO dto, MultipartFile mainImage, Integer creatorId) {
         
-        // 检查创建者是否存在
-        User creator = userRepository.findById(creatorId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + creatorId));
+        // 创建者ID来自已验证的令牌，只取引用，不再查询用户
+        User creator = userRepository.getReferenceById(creatorId);
         Plant newPlant = new Plant();
 
         // 如果 mainImage 不为空，则调用 ImageService 的新方法来存储图片并获取 URL
@@ -65,6 +105,7 @@ public class PlantService {
         newPlant.setScientificName(dto.getScientificName());
         newPlant.setDescription(dto.getDescription());
         newPlant.setFloweringPeriod(dto.getFloweringPeriod());
+        newPlant.setFloweringMonths(FloweringPeriodParser.parse(dto.getFloweringPeriod()));
         newPlant.setCreator(creator);
 
         // 将状态字符串转换为枚举 没有传入状态时，默认为 DRAFT
@@ -86,6 +127,7 @@ public class PlantService {
         //  创建或更新植物位置关联
         createOrUpdatePlantLocations(dto.getLocations(), savedPlant);
 
+        eventPublisher.publishEvent(new PlantChangedEvent(savedPlant.getId(), PlantChangedEvent.ChangeType.CREATED));
         return savedPlant; // 返回实体
     }
 
@@ -119,66 +161,136 @@ public class PlantService {
         existingPlant.setScientificName(dto.getScientificName());
         existingPlant.setDescription(dto.getDescription());
         existingPlant.setFloweringPeriod(dto.getFloweringPeriod());
+        existingPlant.setFloweringMonths(FloweringPeriodParser.parse(dto.getFloweringPeriod()));
 
         // 将 status 字符串转换为枚举
         if (dto.getStatus() != null && !dto.getStatus().isEmpty()) {
             existingPlant.setStatus(Plant.PlantStatus.valueOf(dto.getStatus()));
         }
 
-        // 将标签转换为实体并设置
+        // 标签和地点只写入有变化的关联，没有变化时不产生任何关联表写入
         if (dto.getTagIds() != null) {
-            Set<Tag> tags = tagRepository.findAllById(dto.getTagIds().stream().map(Long::intValue).collect(Collectors.toList()))
-                    .stream().collect(Collectors.toSet());
-            existingPlant.setTags(tags);
+            updatePlantTags(existingPlant, dto.getTagIds());
         }
+        updatePlantLocations(existingPlant, dto.getLocations());
 
-        // 先通过 JPA 从数据库删除旧的关联记录
-        plantLocationRepository.deleteByPlantId(plantId);
-        
-        // 如果现有植物实体有旧的位置信息，先清空
-        // 防止 Hibernate 在事务提交时尝试持久化已经删除的旧数据
-        if (existingPlant.getPlantLocations() != null) {
-            existingPlant.getPlantLocations().clear();
+        // 只修改标签或地点时植物本身的列没有变化，@UpdateTimestamp 不会生效，这里显式刷新更新时间
+        existingPlant.setUpdatedAt(LocalDateTime.now());
+
+        eventPublisher.publishEvent(new PlantChangedEvent(plantId, PlantChangedEvent.ChangeType.UPDATED));
+        return plantRepository.save(existingPlant); // 返回实体
+    }
+
+    /**
+     * 按差异更新植物标签：在原有集合上增删，Hibernate 只删除和插入变化的 plant_tags 行
+     * @param plant 要更新的植物
+     * @param tagIds 提交的标签ID
+     */
+    private void updatePlantTags(Plant plant, Set<Long> tagIds) {
+        Set<Integer> submitted = tagIds.stream().map(Long::intValue).collect(Collectors.toSet());
+        Set<Tag> tags = plant.getTags();
+        tags.removeIf(tag -> !submitted.contains(tag.getId()));
+        Set<Integer> current = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+        List<Integer> added = submitted.stream().filter(id -> !current.contains(id)).collect(Collectors.toList());
+        if (!added.isEmpty()) {
+            tags.addAll(tagRepository.findAllById(added));
         }
+    }
 
-        // 将删除操作刷新到数据库，确保后续操作的隔离性
-        plantLocationRepository.flush();
+    /**
+     * 按差异更新植物地点：只删除不再提交的关联，只为新提交的地点创建关联
+     * 未提交地点时删除全部关联
+     * @param plant 要更新的植物
+     * @param locationInfos 提交的地点信息
+     */
+    private void updatePlantLocations(Plant plant, List<PlantCreateDTO.LocationInfo> locationInfos) {
+        Set<LocationKey> submitted = new HashSet<>();
+        if (locationInfos != null) {
+            for (PlantCreateDTO.LocationInfo locInfo : locationInfos) {
+                submitted.add(new LocationKey(locInfo.getAreaName(), locInfo.getSpecificName()));
+            }
+        }
 
-        // 基于前端传来的新数据，（安全地）创建新的位置关联
-        createOrUpdatePlantLocations(dto.getLocations(), existingPlant);
+        Set<LocationKey> current = new HashSet<>();
+        List<PlantLocation> removed = new ArrayList<>();
+        for (PlantLocation plantLocation : plantLocationRepository.findWithLocationByPlantId(plant.getId())) {
+            Location location = plantLocation.getLocation();
+            LocationKey key = new LocationKey(location.getAreaName(), location.getSpecificName());
+            if (submitted.contains(key)) {
+                current.add(key);
+            } else {
+                removed.add(plantLocation);
+            }
+        }
 
-        return plantRepository.save(existingPlant); // 返回实体
+        if (!removed.isEmpty()) {
+            // 关联集合已加载时同步移除，避免提交时级联保存已删除的实体
+            if (Hibernate.isInitialized(plant.getPlantLocations())) {
+                removed.forEach(plant.getPlantLocations()::remove);
+            }
+            plantLocationRepository.deleteAll(removed);
+        }
+        if (locationInfos != null) {
+            createOrUpdatePlantLocations(locationInfos.stream()
+                    .filter(locInfo -> !current.contains(new LocationKey(locInfo.getAreaName(), locInfo.getSpecificName())))
+                    .collect(Collectors.toList()), plant);
+        }
     }
 
     /**
-     * 更新植物地点
-     * @param plantId 植物ID
-     * @param locationUpdateDTO 包含新地点的 DTO
-     * @return 更新后的植物实体
+     * 创建或复用地点并关联到植物
+     * 无论提交多少个地点，都只执行一次地点查询、一批地点插入和一批关联插入
+     * @param locationInfos 前端提交的地点信息
+     * @param plant 要关联的植物
      */
     private void createOrUpdatePlantLocations(List<PlantCreateDTO.LocationInfo> locationInfos, Plant plant) {
+        // 如果没有传入地点信息，则不进行任何操作
         if (locationInfos == null || locationInfos.isEmpty()) {
             return;
         }
-        // 遍历每个地点信息
-        // 如果没有传入地点信息，则不进行任何操作
+        // 一次查询取出请求中所有已存在的地点，再按 (区域, 具体名称) 精确匹配
+        Map<LocationKey, Location> existing = new HashMap<>();
+        for (Location location : locationRepository.findByAreaNameInAndSpecificNameIn(
+                locationInfos.stream().map(PlantCreateDTO.LocationInfo::getAreaName).collect(Collectors.toSet()),
+                locationInfos.stream().map(PlantCreateDTO.LocationInfo::getSpecificName).collect(Collectors.toSet()))) {
+            existing.put(new LocationKey(location.getAreaName(), location.getSpecificName()), location);
+        }
+
+        // 同一请求中重复的地点只关联一次，不存在的地点新建
+        Map<LocationKey, Location> resolved = new LinkedHashMap<>();
+        List<Location> newLocations = new ArrayList<>();
         for (PlantCreateDTO.LocationInfo locInfo : locationInfos) {
-            Location location = locationRepository
-                    .findByAreaNameAndSpecificName(locInfo.getAreaName(), locInfo.getSpecificName())
-                    .orElseGet(() -> {
-                        Location newLoc = new Location();
-                        newLoc.setAreaName(locInfo.getAreaName());
-                        newLoc.setSpecificName(locInfo.getSpecificName());
-                        newLoc.setMapCoordX(locInfo.getMapCoordX());
-                        newLoc.setMapCoordY(locInfo.getMapCoordY());
-                        return locationRepository.save(newLoc);
-                    });
+            resolved.computeIfAbsent(new LocationKey(locInfo.getAreaName(), locInfo.getSpecificName()), key -> {
+                Location location = existing.get(key);
+                if (location == null) {
+                    location = new Location();
+                    location.setAreaName(locInfo.getAreaName());
+                    location.setSpecificName(locInfo.getSpecificName());
+                    location.setMapCoordX(locInfo.getMapCoordX());
+                    location.setMapCoordY(locInfo.getMapCoordY());
+                    newLocations.add(location);
+                }
+                return location;
+            });
+        }
 
+        // 地点和关联的主键都来自池化序列，持久化时不需要立即插入，提交时按批执行
+        locationRepository.saveAll(newLocations);
+        for (Location location : newLocations) {
+            eventPublisher.publishEvent(new LocationCreatedEvent(location.getId(), location.getAreaName()));
+        }
+        List<PlantLocation> plantLocations = new ArrayList<>();
+        for (Location location : resolved.values()) {
             PlantLocation plantLocation = new PlantLocation();
             plantLocation.setPlant(plant);
             plantLocation.setLocation(location);
-            plantLocationRepository.save(plantLocation);
+            plantLocations.add(plantLocation);
         }
+        plantLocationRepository.saveAll(plantLocations);
+    }
+
+    // 地点的自然键
+    private record LocationKey(String areaName, String specificName) {
     }
 
     /**
@@ -200,6 +312,8 @@ public class PlantService {
 
         // 删除植物实体
         plantRepository.delete(plant);
+
+        eventPublisher.publishEvent(new PlantChangedEvent(plantId, PlantChangedEvent.ChangeType.DELETED));
     }
 
     /**
@@ -213,15 +327,226 @@ public class PlantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
     }
 
+    /**
+     * 获取植物详情 DTO，优先读取详情缓存
+     * 不开启外层事务，命中缓存时不访问数据库
+     */
+    @SingleFlight
+    public PlantDTO getPlantDetail(Integer id) {
+        return plantDetailCacheService.getPlantDetail(id);
+    }
+
+    /**
+     * 植物详情的版本，只查询更新时间和图片数，不加载实体
+     * @return 植物不存在时返回 null
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPlantDetailVersion(Integer id) {
+        return plantRepository.findDetailVersionById(id)
+                .map(view -> ResourceVersion.of("plant-" + id, view.getImageCount(), view.getPlantUpdatedAt(),
+                        view.getCreatorUpdatedAt(), view.getImagesUpdatedAt(), view.getUploadersUpdatedAt()))
+                .orElse(null);
+    }
+
     /**
      * 获取植物列表
+     * 默认按ID顺序时直接由内存位图索引完成筛选、计数和分页，只从数据库加载当前页；
+     * 指定了其他排序或索引尚未就绪时，回退到数据库的两阶段查询
+     * @param filter 筛选条件
      * @param pageable 分页信息
-     * @return 植物实体的分页结果
+     * @return 植物摘要的分页结果
      */
     @Transactional(readOnly = true)
-    public Page<PlantDTO> getPublishedPlants(Integer tagId, String period, String areaName, Pageable pageable) {
-        return plantRepository.findWithFilters(tagId, period, areaName, pageable)
-                .map(EntityMapper::toPlantDTO);
+    @SingleFlight
+    public Page<PlantSummaryDTO> getPublishedPlants(PlantFilterDTO filter, Pageable pageable) {
+        Integer periodMask = toPeriodMask(filter.getPeriod());
+        List<Integer> tagIds = distinct(filter.getTagIds());
+        List<String> areaNames = distinct(filter.getAreaNames());
+
+        List<Integer> pageIds;
+        long total;
+        if (facetIndexService.isReady() && isIdOrder(pageable.getSort())) {
+            BitSet matched = facetIndexService.match(tagIds, filter.isMatchAllTags(), periodMask, areaNames);
+            if (pageable.getSort().getOrderFor("id") != null && pageable.getSort().getOrderFor("id").isDescending()) {
+                pageIds = PlantFacetIndexService.pageDescending(matched, pageable.getOffset(), pageable.getPageSize());
+            } else {
+                pageIds = PlantFacetIndexService.page(matched, pageable.getOffset(), pageable.getPageSize());
+            }
+            total = matched.cardinality();
+        } else {
+            // 先分页查出当前页的ID，再批量加载这一页的关联数据，内存占用只与页大小相关
+            // 未指定排序时按ID升序，与索引路径的结果顺序一致，翻页时不会重复或遗漏
+            Pageable idPageable = pageable.isPaged() && pageable.getSort().isUnsorted()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+                    : pageable;
+            Page<Integer> idPage = plantRepository.findIdsWithFilters(
+                    orPlaceholder(tagIds, -1), tagMatchCount(tagIds, filter.isMatchAllTags()), periodMask,
+                    !areaNames.isEmpty(), orPlaceholder(areaNames, ""), idPageable);
+            pageIds = idPage.getContent();
+            total = idPage.getTotalElements();
+        }
+        return new PageImpl<>(findSummariesInOrder(pageIds), pageable, total);
+    }
+
+    /**
+     * 以游标方式获取植物列表，按最近更新倒序，不执行 COUNT 查询
+     * @param filter 筛选条件
+     * @param after 上一页返回的 nextCursor，第一页传空字符串
+     * @param size 每页条数
+     * @return 游标分页结果
+     */
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public CursorPageDTO<PlantSummaryDTO> getPublishedPlantsAfter(PlantFilterDTO filter, String after, int size) {
+        LocalDateTime afterUpdatedAt = null;
+        Integer afterId = null;
+        if (after != null && !after.isEmpty()) {
+            String[] parts = decodeCursor(after);
+            afterUpdatedAt = LocalDateTime.parse(parts[0]);
+            afterId = Integer.valueOf(parts[1]);
+        }
+        List<Integer> tagIds = distinct(filter.getTagIds());
+        List<String> areaNames = distinct(filter.getAreaNames());
+
+        // 多取一条，用来判断是否还有下一页
+        List<Integer> ids = plantRepository.findIdsWithFiltersAfter(
+                orPlaceholder(tagIds, -1), tagMatchCount(tagIds, filter.isMatchAllTags()), toPeriodMask(filter.getPeriod()),
+                !areaNames.isEmpty(), orPlaceholder(areaNames, ""),
+                afterUpdatedAt, afterId, PageRequest.of(0, size + 1));
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+        List<PlantSummaryDTO> content = findSummariesInOrder(ids);
+
+        String nextCursor = null;
+        if (hasNext) {
+            PlantSummaryDTO last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(last.getUpdatedAt(), last.getId());
+        }
+        return new CursorPageDTO<>(content, size, hasNext, nextCursor);
+    }
+
+    /**
+     * 获取图鉴页筛选项计数，全部由内存索引一次计算完成，不按标签或区域逐个查询数据库
+     * @param filter 与列表相同的筛选条件
+     * @return 总数以及各标签、区域、月份的植物数量
+     */
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public PlantFacetsDTO getPlantFacets(PlantFilterDTO filter) {
+        if (!facetIndexService.isReady()) {
+            facetIndexService.ensureReady();
+        }
+        PlantFacetIndexService.FacetCounts counts = facetIndexService.countFacets(
+                distinct(filter.getTagIds()), filter.isMatchAllTags(),
+                toPeriodMask(filter.getPeriod()), distinct(filter.getAreaNames()));
+
+        // 标签名称取自内存快照，快照已按ID排序
+        List<FacetCountDTO> tags = tagService.getAllTags().stream()
+                .map(tag -> new FacetCountDTO(String.valueOf(tag.getId()), tag.getName(),
+                        counts.tagCounts().getOrDefault(tag.getId(), 0)))
+                .collect(Collectors.toList());
+        List<FacetCountDTO> areas = counts.areaCounts().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new FacetCountDTO(entry.getKey(), entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        List<FacetCountDTO> months = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            months.add(new FacetCountDTO(String.valueOf(month), month + "月", counts.monthCounts()[month - 1]));
+        }
+        return new PlantFacetsDTO(counts.total(), tags, areas, months);
+    }
+
+    // 内存索引按ID顺序分页，只能处理未指定排序或只按 id 排序的请求
+    private static boolean isIdOrder(Sort sort) {
+        return sort.isUnsorted() || (sort.stream().count() == 1 && sort.getOrderFor("id") != null);
+    }
+
+    private static int tagMatchCount(List<Integer> tagIds, boolean matchAllTags) {
+        if (tagIds.isEmpty()) {
+            return 0;
+        }
+        return matchAllTags ? tagIds.size() : 1;
+    }
+
+    private static <T> List<T> distinct(List<T> values) {
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        return values.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    // JPQL 的 IN 参数不能为空集合，未筛选时传入一个占位值，实际由开关参数跳过该条件
+    private static <T> List<T> orPlaceholder(List<T> values, T placeholder) {
+        return values.isEmpty() ? List.of(placeholder) : values;
+    }
+
+    /**
+     * 将花期筛选参数解析为月份掩码，支持 "4"、"4-5"、"4-5月"、"春季"、"夏秋" 等写法
+     * @param period 花期筛选参数，可为空
+     * @return 月份掩码，未传入时返回 null
+     */
+    private Integer toPeriodMask(String period) {
+        if (period == null || period.isBlank()) {
+            return null;
+        }
+        int mask = FloweringPeriodParser.parseFilter(period);
+        if (mask == 0) {
+            throw new IllegalArgumentException("Unrecognized flowering period: " + period);
+        }
+        return mask;
+    }
+
+    /**
+     * 按给定的ID顺序加载植物摘要
+     * 主表只查询摘要列，标签和区域各用一条查询批量加载，每页固定三条查询
+     * @param ids 已排好序的植物ID
+     * @return 与 ids 顺序一致的植物摘要列表
+     */
+    private List<PlantSummaryDTO> findSummariesInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, PlantSummaryDTO> summariesById = plantRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PlantSummaryDTO::getId, Function.identity()));
+        for (PlantRepository.PlantTagNameView view : plantRepository.findTagsByPlantIdIn(ids)) {
+            TagDTO tag = new TagDTO();
+            tag.setId(view.getTagId());
+            tag.setName(view.getTagName());
+            summariesById.get(view.getPlantId()).getTags().add(tag);
+        }
+        for (PlantRepository.PlantAreaView view : plantRepository.findAreaNamesByPlantIdIn(ids)) {
+            if (view.getAreaName() != null) {
+                summariesById.get(view.getPlantId()).getAreaNames().add(view.getAreaName());
+            }
+        }
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // 游标格式为 "updatedAt|id" 的 Base64URL 编码，对客户端不透明
+    private String encodeCursor(LocalDateTime updatedAt, Integer id) {
+        String raw = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            // 提前校验格式，避免在查询时才失败
+            LocalDateTime.parse(parts[0]);
+            Integer.parseInt(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 
     /**
@@ -232,59 +557,121 @@ public class PlantService {
      * @return 植物实体
      */
     @Transactional(readOnly = true)
-    public Page<PlantDTO> getPlantsByCreator(Integer creatorId, Plant.PlantStatus status, Pageable pageable) {
-        Page<Plant> plantPage;
-        if (status != null) {
-            plantPage = plantRepository.findByCreatorIdAndStatus(creatorId, status, pageable);
-        } else {
-            plantPage = plantRepository.findByCreatorId(creatorId, pageable);
-        }
-        return plantPage.map(EntityMapper::toPlantDTO);
+    public Page<PlantSummaryDTO> getPlantsByCreator(Integer creatorId, Plant.PlantStatus status, Pageable pageable) {
+        Page<Integer> idPage = plantRepository.findIdsByCreator(creatorId, status, pageable);
+        return new PageImpl<>(findSummariesInOrder(idPage.getContent()), pageable, idPage.getTotalElements());
     }
     
     /**
      * 获取地图上的植物点
-     * @return 包含植物位置信息的 DTO 列表
+     * 返回内存空间索引维护的当前版本快照，每个植物在每个有坐标的地点上对应一个点
+     * @return 版本号及包含植物位置信息的 DTO 列表
      */
-    @Transactional(readOnly = true)
-    public List<PlantMapPointDTO> getMapPoints() {
-        // 获取包含所有需要数据的 Plant 实体列表
-        List<Plant> plants = plantRepository.findPublishedPlantsForMap();
-
-        // 在服务层中进行手动映射，将实体转换为 DTO
-        // 使用 flatMap 是因为一个植物可能分布在多个地点，每个地点都应成为地图上的一个点
-        return plants.stream()
-                .flatMap(plant -> plant.getPlantLocations().stream().map(plantLocation -> {
-                    Location location = plantLocation.getLocation();
-                    PlantMapPointDTO dto = new PlantMapPointDTO();
-                    // 映射植物信息
-                    dto.setPlantId(plant.getId());
-                    dto.setName(plant.getName());
-                    dto.setScientificName(plant.getScientificName());
-                    dto.setMainImageUrl(plant.getMainImageUrl());
-                    dto.setMapCoordX(location.getMapCoordX());
-                    dto.setMapCoordY(location.getMapCoordY());
-
-                    // 映射标签信息
-                    if (plant.getTags() != null) {
-                        dto.setTags(plant.getTags().stream()
-                                .map(EntityMapper::toTagDTO)
-                                .collect(Collectors.toList()));
-                    } else {
-                        dto.setTags(Collections.emptyList());
-                    }
-                    return dto;
-                }))
-                .collect(Collectors.toList());
+    @SingleFlight
+    public PlantMapIndexService.MapSnapshot getMapPoints() {
+        ensureMapIndexReady();
+        return mapIndexService.getSnapshot();
+    }
+
+    /**
+     * 获取自指定版本之后发生变化的地图点位，用于客户端增量同步
+     * @param sinceVersion 客户端持有的版本号
+     */
+    @SingleFlight
+    public PlantMapDeltaDTO getMapPointsDelta(long sinceVersion) {
+        ensureMapIndexReady();
+        return mapIndexService.getDelta(sinceVersion);
+    }
+
+    /**
+     * 获取落在地图视口内的植物点，用于地图平移和缩放时只加载可见范围
+     * @param minX 视口左边界
+     * @param minY 视口上边界
+     * @param maxX 视口右边界
+     * @param maxY 视口下边界
+     */
+    @SingleFlight
+    public List<PlantMapPointDTO> getMapPointsInViewport(float minX, float minY, float maxX, float maxY) {
+        ensureMapIndexReady();
+        return mapIndexService.getPointsInViewport(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * 获取指定缩放级别的地图点位聚合，缩小地图时用聚合代替大量重叠的点位
+     * @param zoom 缩放级别，0 为最粗
+     * @param viewport 可选的视口 {minX, minY, maxX, maxY}
+     */
+    @SingleFlight
+    public List<PlantMapClusterDTO> getMapClusters(int zoom, float[] viewport) {
+        ensureMapIndexReady();
+        return mapIndexService.getClusters(zoom, viewport);
+    }
+
+    /**
+     * 获取地图瓦片，瓦片内的点位按列编码
+     */
+    public PlantMapTileDTO getMapTile(int z, int x, int y) {
+        ensureMapIndexReady();
+        return mapIndexService.getTile(z, x, y);
+    }
+
+    private void ensureMapIndexReady() {
+        if (!mapIndexService.isReady()) {
+            mapIndexService.ensureReady();
+        }
     }
 
     /*
      *  根据植物名称进行模糊搜索
      */
      @Transactional(readOnly = true)
-    public Page<PlantDTO> searchPlants(String query, Pageable pageable) {
-        Page<Plant> plantPage = plantRepository.findByNameContainingIgnoreCaseAndStatus(query, Plant.PlantStatus.PUBLISHED, pageable);
-        return plantPage.map(EntityMapper::toPlantDTO);
+    @SingleFlight
+    public Page<PlantSummaryDTO> searchPlants(String query, Pageable pageable) {
+        Page<Integer> idPage = plantRepository.findPublishedIdsByNameContaining(query, pageable);
+        return new PageImpl<>(findSummariesInOrder(idPage.getContent()), pageable, idPage.getTotalElements());
+    }
+
+    /**
+     * 按相关度搜索已发布植物
+     * 在名称、学名、科属、简介、标签和地点中检索，结果按 BM25 相关度排序，忽略 pageable 中的排序
+     */
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public Page<PlantSummaryDTO> searchPlantsRanked(String query, Pageable pageable) {
+        if (!searchIndexService.isReady()) {
+            searchIndexService.ensureReady();
+        }
+        return pageOfRankedIds(searchIndexService.search(query), pageable);
+    }
+
+    /**
+     * 按中文片段、全拼或拼音首字母模糊搜索植物名称和所在地点名称，如 "yx" 可匹配 "银杏"
+     */
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public Page<PlantSummaryDTO> searchPlantsFuzzy(String query, Pageable pageable) {
+        if (!fuzzySearchService.isReady()) {
+            fuzzySearchService.ensureReady();
+        }
+        return pageOfRankedIds(fuzzySearchService.search(query), pageable);
+    }
+
+    /**
+     * 获取搜索框联想词，索引就绪后完全在内存中完成，不开启事务也不访问数据库
+     * @param prefix 用户已输入的内容
+     * @param limit 最多返回的条数
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (!suggestService.isReady()) {
+            suggestService.ensureReady();
+        }
+        return suggestService.suggest(prefix, limit);
+    }
+
+    private Page<PlantSummaryDTO> pageOfRankedIds(List<Integer> rankedIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        return new PageImpl<>(findSummariesInOrder(rankedIds.subList(from, to)), pageable, rankedIds.size());
     }
 
     /**
@@ -304,9 +691,9 @@ public class PlantService {
      * 对应 API: GET /api/admin/plants/pending
      */
     @Transactional(readOnly = true)
-    public Page<PlantDTO> getPendingPlants(Pageable pageable) {
-        Page<Plant> plantPage = plantRepository.findByStatus(Plant.PlantStatus.PENDING_REVIEW, pageable);
-        return plantPage.map(EntityMapper::toPlantDTO);
+    public Page<PlantSummaryDTO> getPendingPlants(Pageable pageable) {
+        Page<Integer> idPage = plantRepository.findIdsByStatus(Plant.PlantStatus.PENDING_REVIEW, pageable);
+        return new PageImpl<>(findSummariesInOrder(idPage.getContent()), pageable, idPage.getTotalElements());
     }
 
     /**
@@ -326,7 +713,8 @@ public class PlantService {
         plant.setStatus(dto.getStatus());
         // 如果是拒绝状态，设置审核备注
         plant.setReviewNotes(dto.getReviewNotes());
-        
+
+        eventPublisher.publishEvent(new PlantChangedEvent(plantId, PlantChangedEvent.ChangeType.REVIEWED));
         // 返回更新后的植物实体
         return plantRepository.save(plant);
     }
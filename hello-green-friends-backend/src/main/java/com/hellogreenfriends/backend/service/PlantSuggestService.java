@@ -0,0 +1,355 @@
+package com.hellogreenfriends.backend.service;
+
+import com.hellogreenfriends.backend.config.AsyncConfig;
+import com.hellogreenfriends.backend.dto.SuggestionDTO;
+import com.hellogreenfriends.backend.entity.Plant;
+import com.hellogreenfriends.backend.entity.PlantLocation;
+import com.hellogreenfriends.backend.entity.Tag;
+import com.hellogreenfriends.backend.event.PlantChangedEvent;
+import com.hellogreenfriends.backend.event.PlantsImportedEvent;
+import com.hellogreenfriends.backend.repository.PlantRepository;
+import com.hellogreenfriends.backend.util.IndexRebuildGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索框联想词索引
+ * 已发布植物的名称、学名、标签名和区域名存放在一棵压缩前缀树（radix trie）中，
+ * 每个节点缓存其子树中热度最高的 MAX_SUGGESTIONS 个词，查询时只需沿前缀走到对应节点，
+ * 不访问数据库。词的热度为包含该词的已发布植物数，植物变更时只重新计算受影响路径上的缓存。
+ */
+@Service
+public class PlantSuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantSuggestService.class);
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Term> BY_POPULARITY = Comparator.comparingInt((Term term) -> term.count).reversed()
+            .thenComparing(term -> term.text)
+            .thenComparing(term -> term.type);
+
+    private final PlantRepository plantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下状态均受 lock 保护
+    private Node root = new Node("");
+    // 植物ID -> 该植物贡献的词，增量更新时用来扣减旧词的热度
+    private Map<Integer, Set<TermKey>> termsByPlant = new HashMap<>();
+
+    private final IndexRebuildGuard rebuildGuard = new IndexRebuildGuard();
+
+    public PlantSuggestService(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    public boolean isReady() {
+        return rebuildGuard.isReady();
+    }
+
+    /**
+     * 获取以 prefix 开头的联想词，不区分大小写
+     * @param prefix 用户已输入的内容
+     * @param limit 最多返回的条数，限制在 1 到 MAX_SUGGESTIONS 之间
+     * @return 按热度从高到低排列的联想词
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+            return node.top.stream()
+                    .limit(Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))
+                    .map(term -> new SuggestionDTO(term.text, term.type, term.count))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 应用启动后全量构建索引，只查询名称列，不加载植物实体
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 批量导入植物后在专用线程中全量重建，导入请求不等待重建完成
+     */
+    @Async(AsyncConfig.INDEX_REBUILD_EXECUTOR)
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onPlantsImported(PlantsImportedEvent event) {
+        rebuildGuard.rebuild(this::load, this::refresh);
+    }
+
+    /**
+     * 索引未就绪时构建一次，已有线程在构建时等待其完成，调用方应先用 isReady() 判断以免每次都开启事务
+     */
+    @Transactional(readOnly = true)
+    public void ensureReady() {
+        rebuildGuard.ensureReady(this::load, this::refresh);
+    }
+
+    private void load() {
+        Map<Integer, Set<TermKey>> loaded = new HashMap<>();
+        plantRepository.findPublishedPlantNames().forEach(view -> {
+            Set<TermKey> terms = loaded.computeIfAbsent(view.getPlantId(), key -> new HashSet<>());
+            addTerm(terms, view.getName(), "PLANT_NAME");
+            addTerm(terms, view.getScientificName(), "SCIENTIFIC_NAME");
+        });
+        plantRepository.findPublishedPlantTagNames().forEach(view -> {
+            Set<TermKey> terms = loaded.get(view.getPlantId());
+            if (terms != null) {
+                addTerm(terms, view.getTagName(), "TAG");
+            }
+        });
+        plantRepository.findPublishedPlantAreas().forEach(view -> {
+            Set<TermKey> terms = loaded.get(view.getPlantId());
+            if (terms != null) {
+                addTerm(terms, view.getAreaName(), "AREA");
+            }
+        });
+
+        // 先统计每个词的热度，再一次性插入并自底向上计算各节点的缓存
+        Map<TermKey, Integer> counts = new HashMap<>();
+        loaded.values().forEach(terms -> terms.forEach(term -> counts.merge(term, 1, Integer::sum)));
+        Node newRoot = new Node("");
+        counts.forEach((term, count) -> insert(newRoot, term).count = count);
+        computeTopRecursively(newRoot);
+
+        lock.writeLock().lock();
+        try {
+            root = newRoot;
+            termsByPlant = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Plant suggestion index built with {} terms", counts.size());
+    }
+
+    /**
+     * 植物发布、修改或删除提交后，重新加载该植物并更新相关词的热度
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPlantChanged(PlantChangedEvent event) {
+        rebuildGuard.markChanged(event.getPlantId());
+        refresh(event.getPlantId());
+    }
+
+    private void refresh(Integer plantId) {
+        List<Plant> plants = plantRepository.findAllWithDetailsByIdIn(List.of(plantId));
+        Set<TermKey> newTerms = new HashSet<>();
+        if (!plants.isEmpty() && plants.get(0).getStatus() == Plant.PlantStatus.PUBLISHED) {
+            newTerms = termsOf(plants.get(0));
+        }
+        lock.writeLock().lock();
+        try {
+            Set<TermKey> oldTerms = termsByPlant.getOrDefault(plantId, Set.of());
+            for (TermKey term : oldTerms) {
+                if (!newTerms.contains(term)) {
+                    adjust(term, -1);
+                }
+            }
+            for (TermKey term : newTerms) {
+                if (!oldTerms.contains(term)) {
+                    adjust(term, 1);
+                }
+            }
+            if (newTerms.isEmpty()) {
+                termsByPlant.remove(plantId);
+            } else {
+                termsByPlant.put(plantId, newTerms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 修改一个词的热度，并重新计算从该词节点到根节点路径上的缓存，调用方需持有写锁
+    private void adjust(TermKey key, int delta) {
+        List<Node> path = new ArrayList<>();
+        Term term = insert(root, key, path);
+        term.count += delta;
+        Node terminal = path.get(path.size() - 1);
+        if (term.count <= 0) {
+            terminal.terms.remove(key);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            // 清理已没有任何词的叶子节点
+            if (i > 0 && node.terms.isEmpty() && node.children.isEmpty()) {
+                path.get(i - 1).children.remove(node.edge.charAt(0));
+                continue;
+            }
+            computeTop(node);
+        }
+    }
+
+    // 查找前缀对应的节点，前缀结束在某条边中间时返回该边指向的节点
+    private Node find(String key) {
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            Node child = node.children.get(key.charAt(pos));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.edge, key, pos);
+            if (pos + common == key.length()) {
+                return child;
+            }
+            if (common < child.edge.length()) {
+                return null;
+            }
+            pos += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static Term insert(Node root, TermKey key) {
+        return insert(root, key, new ArrayList<>());
+    }
+
+    // 插入词所在的节点（必要时拆分边），返回该词的计数对象，path 记录从根到词节点经过的节点
+    private static Term insert(Node root, TermKey key, List<Node> path) {
+        String text = key.normalized;
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < text.length()) {
+            Node child = node.children.get(text.charAt(pos));
+            if (child == null) {
+                child = new Node(text.substring(pos));
+                node.children.put(child.edge.charAt(0), child);
+                pos = text.length();
+            } else {
+                int common = commonPrefixLength(child.edge, text, pos);
+                if (common < child.edge.length()) {
+                    // 拆分边：node -> middle -> child
+                    Node middle = new Node(child.edge.substring(0, common));
+                    child.edge = child.edge.substring(common);
+                    middle.children.put(child.edge.charAt(0), child);
+                    middle.top = new ArrayList<>(child.top);
+                    node.children.put(middle.edge.charAt(0), middle);
+                    child = middle;
+                }
+                pos += common;
+            }
+            node = child;
+            path.add(node);
+        }
+        return node.terms.computeIfAbsent(key, k -> new Term(k.text, k.type));
+    }
+
+    private static void computeTopRecursively(Node node) {
+        node.children.values().forEach(PlantSuggestService::computeTopRecursively);
+        computeTop(node);
+    }
+
+    // 节点缓存 = 自身的词与各子节点缓存合并后热度最高的若干个
+    private static void computeTop(Node node) {
+        List<Term> candidates = new ArrayList<>(node.terms.values());
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        candidates.sort(BY_POPULARITY);
+        node.top = new ArrayList<>(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+    }
+
+    private static int commonPrefixLength(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Set<TermKey> termsOf(Plant plant) {
+        Set<TermKey> terms = new HashSet<>();
+        addTerm(terms, plant.getName(), "PLANT_NAME");
+        addTerm(terms, plant.getScientificName(), "SCIENTIFIC_NAME");
+        if (plant.getTags() != null) {
+            for (Tag tag : plant.getTags()) {
+                addTerm(terms, tag.getName(), "TAG");
+            }
+        }
+        if (plant.getPlantLocations() != null) {
+            for (PlantLocation plantLocation : plant.getPlantLocations()) {
+                if (plantLocation.getLocation() != null) {
+                    addTerm(terms, plantLocation.getLocation().getAreaName(), "AREA");
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(Set<TermKey> terms, String text, String type) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String trimmed = text.trim();
+        terms.add(new TermKey(trimmed, type, normalize(trimmed)));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record TermKey(String text, String type, String normalized) {
+    }
+
+    // 前缀树节点，edge 为从父节点到该节点的边上的字符串
+    private static final class Node {
+        private String edge;
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Map<TermKey, Term> terms = new HashMap<>(2);
+        private List<Term> top = new ArrayList<>();
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+    }
+
+    private static final class Term {
+        private final String text;
+        private final String type;
+        private int count;
+
+        private Term(String text, String type) {
+            this.text = Objects.requireNonNull(text);
+            this.type = type;
+        }
+    }
+}
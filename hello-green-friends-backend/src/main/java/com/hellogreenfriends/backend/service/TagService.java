@@ -1,10 +1,20 @@
 package com.hellogreenfriends.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellogreenfriends.backend.dto.TagDTO;
 import com.hellogreenfriends.backend.entity.Tag;
+import com.hellogreenfriends.backend.event.TagCreatedEvent;
+import com.hellogreenfriends.backend.mapper.EntityMapper;
 import com.hellogreenfriends.backend.repository.TagRepository;
+import com.hellogreenfriends.backend.util.JsonListSnapshot;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.Set;
@@ -13,25 +23,66 @@ import java.util.stream.Collectors;
 /**
  * TagService 类，用于处理标签相关的业务逻辑。
  * 主要功能包括获取所有标签和根据标签名称查找或创建标签。
+ * 标签列表只会在创建新标签时变化，因此保存在内存快照中，新标签提交后整体替换快照。
  */
 @Service
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // 加载快照和替换快照都在此锁内完成，避免旧的加载结果覆盖新快照
+    private final Object snapshotLock = new Object();
+    private volatile JsonListSnapshot<TagDTO> snapshot;
 
     // TagService 构造函数，注入 TagRepository
-    public TagService(TagRepository tagRepository) {
+    public TagService(TagRepository tagRepository, ObjectMapper objectMapper,
+                      ApplicationEventPublisher eventPublisher) {
         this.tagRepository = tagRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * 获取所有可用的标签列表。
+     * 获取所有可用的标签列表，按ID排序。
      * 对应 API: GET /api/tags 
      */
-    @Transactional(readOnly = true)
-    public List<Tag> getAllTags() {
-        return tagRepository.findAll();
+    public List<TagDTO> getAllTags() {
+        return getTagsSnapshot().items();
+    }
+
+    /**
+     * 获取标签列表快照，包含序列化好的响应体和 ETag
+     */
+    public JsonListSnapshot<TagDTO> getTagsSnapshot() {
+        JsonListSnapshot<TagDTO> current = snapshot;
+        if (current == null) {
+            reloadSnapshot();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * 应用启动后从数据库加载标签列表快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadSnapshot() {
+        synchronized (snapshotLock) {
+            List<TagDTO> tags = tagRepository.findAll(Sort.by("id")).stream()
+                    .map(EntityMapper::toTagDTO)
+                    .collect(Collectors.toList());
+            snapshot = JsonListSnapshot.of("tags", tags, objectMapper);
+        }
+    }
+
+    /**
+     * 新标签提交后重新加载快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagCreated(TagCreatedEvent event) {
+        reloadSnapshot();
     }
 
     /**
@@ -47,8 +98,10 @@ public class TagService {
                         .orElseGet(() -> {
                             Tag newTag = new Tag();
                             newTag.setName(name);
-                            return tagRepository.save(newTag);
+                            Tag saved = tagRepository.save(newTag);
+                            eventPublisher.publishEvent(new TagCreatedEvent(saved.getId()));
+                            return saved;
                         }))
                 .collect(Collectors.toSet());
     }
-}
\ No newline at end of file
+}
@@ -3,9 +3,11 @@ package com.hellogreenfriends.backend.service;
 import com.hellogreenfriends.backend.dto.UserProfileUpdateDTO;
 import com.hellogreenfriends.backend.dto.UserRegistrationDTO;
 import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.event.UserProfileChangedEvent;
 import com.hellogreenfriends.backend.exception.ResourceNotFoundException;
 import com.hellogreenfriends.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,10 +23,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Autowired
@@ -75,7 +80,9 @@ public class UserService {
     public User updateUserProfile(Integer userId, String newNickname) {
         User user = findUserById(userId);
         user.setNickname(newNickname);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
+        return saved;
     }
 
     /**
@@ -116,7 +123,9 @@ public class UserService {
 
         // 3. 更新用户的avatarUrl字段并保存
         user.setAvatarUrl(avatarUrl);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
+        return saved;
     }
 
     public User updateUserProfile(Integer userId, UserProfileUpdateDTO profileUpdateDTO) {
@@ -127,6 +136,8 @@ public class UserService {
         if (profileUpdateDTO.getNickname() != null && !profileUpdateDTO.getNickname().isBlank()) {
             user.setNickname(profileUpdateDTO.getNickname());
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
+        return saved;
     }
 }
@@ -0,0 +1,199 @@
+package com.hellogreenfriends.backend.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 花期文本解析工具
+ * 将 "4-5月"、"春季"、"9月至11月"、"全年" 等自由文本解析为 12 位月份掩码，
+ * 第 0 位表示一月，第 11 位表示十二月，无法识别时返回 0
+ */
+public final class FloweringPeriodParser {
+
+    public static final int ALL_MONTHS = 0xFFF;
+
+    private static final int SPRING = monthRange(3, 5);
+    private static final int SUMMER = monthRange(6, 8);
+    private static final int AUTUMN = monthRange(9, 11);
+    private static final int WINTER = monthRange(12, 2);
+
+    // 中文数字月份，如 "三月"、"十一月"、"三、四月"、"三四月"
+    private static final Pattern CHINESE_MONTH = Pattern.compile("([一二三四五六七八九十]{1,4})(?=\\s*(月|-|、|,))");
+    // 连写的中文月份按单个月份拆开，如 "三四" 拆为三、四，"十一十二" 拆为十一、十二
+    private static final Pattern CHINESE_DIGIT = Pattern.compile("十[一二]?|[一二三四五六七八九]");
+    // 月份区间，如 "4-5月"、"4月-5月"、"11-2月"、"3月中旬至5月"、"11月至次年2月"（至、到、~ 等已统一为 "-"），
+    // 解析花期文本时至少一端要带 "月"
+    private static final Pattern MONTH_RANGE = Pattern.compile(
+            "(\\d{1,2})\\s*(月)?\\s*(?:[上中下]旬|初|中|底|末)?\\s*-\\s*(?:次年|翌年|来年)?\\s*(\\d{1,2})\\s*(月)?");
+    // 以 "月" 结尾的单个月份或列表，如 "5月"、"3、4、5月"，其余数字（如 "约10天"）不当作月份
+    private static final Pattern MONTH_LIST = Pattern.compile("(\\d{1,2}(?:\\s*[、,]\\s*\\d{1,2})*)\\s*月");
+    // 筛选参数中的单个数字，如 "4"
+    private static final Pattern MONTH_NUMBER = Pattern.compile("\\d{1,2}");
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("\\s*[、,]\\s*");
+
+    // 英文月份的完整名称和缩写，整词匹配，不会误认 "deciduous" 这类单词
+    private static final Pattern ENGLISH_MONTH = Pattern.compile(
+            "\\b(january|jan|february|feb|march|mar|april|apr|may|june|jun|july|jul|august|aug"
+                    + "|september|sept|sep|october|oct|november|nov|december|dec)\\b\\.?");
+    private static final Map<String, Integer> ENGLISH_MONTHS = Map.ofEntries(
+            Map.entry("jan", 1), Map.entry("feb", 2), Map.entry("mar", 3), Map.entry("apr", 4),
+            Map.entry("may", 5), Map.entry("jun", 6), Map.entry("jul", 7), Map.entry("aug", 8),
+            Map.entry("sep", 9), Map.entry("oct", 10), Map.entry("nov", 11), Map.entry("dec", 12));
+
+    private FloweringPeriodParser() {
+    }
+
+    /**
+     * 解析花期文本，数字只有在 "月" 的上下文中才算作月份，"花期约10天" 不会被识别为十月
+     * @param text 花期描述，可为 null
+     * @return 12 位月份掩码，无法识别时返回 0
+     */
+    public static int parse(String text) {
+        return parse(text, true);
+    }
+
+    /**
+     * 解析图鉴页的花期筛选参数，除 parse 支持的写法外，单独的数字和 "4-5" 这样的区间也按月份处理
+     * @param text 花期筛选参数，可为 null
+     * @return 12 位月份掩码，无法识别时返回 0
+     */
+    public static int parseFilter(String text) {
+        return parse(text, false);
+    }
+
+    private static int parse(String text, boolean requireMonthSuffix) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        String s = normalize(text);
+
+        if (s.contains("全年") || s.contains("四季") || s.contains("常年") || s.contains("终年")
+                || s.contains("all year") || s.contains("year-round") || s.contains("year round")) {
+            return ALL_MONTHS;
+        }
+
+        int mask = 0;
+
+        // 先处理区间，再把已匹配的部分去掉，剩下的按以 "月" 结尾的月份列表处理
+        Matcher range = MONTH_RANGE.matcher(s);
+        StringBuilder rest = new StringBuilder();
+        while (range.find()) {
+            if (requireMonthSuffix && range.group(2) == null && range.group(4) == null) {
+                range.appendReplacement(rest, Matcher.quoteReplacement(range.group()));
+                continue;
+            }
+            mask |= monthRange(Integer.parseInt(range.group(1)), Integer.parseInt(range.group(3)));
+            range.appendReplacement(rest, " ");
+        }
+        range.appendTail(rest);
+
+        if (requireMonthSuffix) {
+            Matcher list = MONTH_LIST.matcher(rest);
+            while (list.find()) {
+                for (String month : LIST_SEPARATOR.split(list.group(1))) {
+                    mask |= monthBit(Integer.parseInt(month));
+                }
+            }
+        } else {
+            Matcher number = MONTH_NUMBER.matcher(rest);
+            while (number.find()) {
+                mask |= monthBit(Integer.parseInt(number.group()));
+            }
+        }
+
+        if (s.contains("春") || s.contains("spring")) {
+            mask |= SPRING;
+        }
+        if (s.contains("夏") || s.contains("summer")) {
+            mask |= SUMMER;
+        }
+        if (s.contains("秋") || s.contains("autumn") || s.contains("fall")) {
+            mask |= AUTUMN;
+        }
+        if (s.contains("冬") || s.contains("winter")) {
+            mask |= WINTER;
+        }
+        return mask;
+    }
+
+    /**
+     * 判断掩码中是否包含指定月份
+     * @param mask 月份掩码
+     * @param month 月份，1-12
+     */
+    public static boolean containsMonth(int mask, int month) {
+        return (mask & monthBit(month)) != 0;
+    }
+
+    /**
+     * 生成从 from 到 to 的月份掩码，支持跨年区间，如 11-2 表示 11、12、1、2 月
+     */
+    public static int monthRange(int from, int to) {
+        if (monthBit(from) == 0 || monthBit(to) == 0) {
+            return 0;
+        }
+        int mask = 0;
+        int month = from;
+        while (true) {
+            mask |= monthBit(month);
+            if (month == to) {
+                return mask;
+            }
+            month = month % 12 + 1;
+        }
+    }
+
+    private static int monthBit(int month) {
+        return month >= 1 && month <= 12 ? 1 << (month - 1) : 0;
+    }
+
+    // 统一全角字符、各种连接符和中英文月份写法
+    private static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c >= '０' && c <= '９') {
+                sb.append((char) (c - '０' + '0'));
+            } else if (c == '～' || c == '~' || c == '—' || c == '–' || c == '－' || c == '至' || c == '到') {
+                sb.append('-');
+            } else if (c == '，' || c == '；' || c == ';' || c == '/' || c == '和' || c == '及') {
+                sb.append(',');
+            } else {
+                sb.append(c);
+            }
+        }
+        String s = sb.toString().toLowerCase(Locale.ROOT);
+
+        Matcher chinese = CHINESE_MONTH.matcher(s);
+        StringBuilder converted = new StringBuilder();
+        while (chinese.find()) {
+            chinese.appendReplacement(converted, chineseMonths(chinese.group(1)));
+        }
+        chinese.appendTail(converted);
+
+        // 英文月份统一写成 "N月"，后面按中文月份同样处理
+        Matcher english = ENGLISH_MONTH.matcher(converted);
+        StringBuilder result = new StringBuilder();
+        while (english.find()) {
+            english.appendReplacement(result, ENGLISH_MONTHS.get(english.group(1).substring(0, 3)) + "月");
+        }
+        english.appendTail(result);
+        return result.toString();
+    }
+
+    // 中文数字转为阿拉伯数字，连写的多个月份以 "、" 分隔
+    private static String chineseMonths(String digits) {
+        String units = "一二三四五六七八九";
+        StringJoiner months = new StringJoiner("、");
+        Matcher digit = CHINESE_DIGIT.matcher(digits);
+        while (digit.find()) {
+            String d = digit.group();
+            months.add(String.valueOf(d.startsWith("十")
+                    ? (d.length() == 1 ? 10 : 10 + units.indexOf(d.charAt(1)) + 1)
+                    : units.indexOf(d.charAt(0)) + 1));
+        }
+        return months.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.hellogreenfriends.backend.util;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 内存索引全量重建的并发控制
+ * 同一时间只允许一次全量重建，其余请求排队等待；索引未就绪时的调用等待正在进行的重建完成后直接使用结果，不再重复构建。
+ * 重建期间提交的植物变更会被记录下来，重建结束后逐个重新刷新，避免被较早读取的全量数据覆盖。
+ */
+public final class IndexRebuildGuard {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean ready = false;
+    private volatile boolean rebuilding = false;
+    private final Set<Integer> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 索引是否已完成首次构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 全量重建，已有重建在进行时等待其结束后再执行
+     * @param build 加载全部数据并替换索引
+     * @param refresh 按植物ID重新加载单个植物
+     */
+    public void rebuild(Runnable build, Consumer<Integer> refresh) {
+        lock.lock();
+        try {
+            runRebuild(build, refresh);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 索引未就绪时构建一次，其他线程正在构建时等待它完成
+     */
+    public void ensureReady(Runnable build, Consumer<Integer> refresh) {
+        if (ready) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!ready) {
+                runRebuild(build, refresh);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录一次植物变更，调用方随后仍需自行刷新该植物
+     */
+    public void markChanged(Integer plantId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(plantId);
+        }
+    }
+
+    private void runRebuild(Runnable build, Consumer<Integer> refresh) {
+        rebuilding = true;
+        try {
+            build.run();
+            ready = true;
+        } finally {
+            rebuilding = false;
+        }
+        // 重建期间的增量更新可能被全量数据覆盖，这里重新刷新一次
+        Iterator<Integer> changed = changedDuringRebuild.iterator();
+        while (changed.hasNext()) {
+            Integer plantId = changed.next();
+            changed.remove();
+            refresh.accept(plantId);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.hellogreenfriends.backend.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellogreenfriends.backend.dto.ApiResponse;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+
+/**
+ * 不可变的列表快照，同时保存序列化好的完整响应体 (ApiResponse) 和据此计算的 ETag
+ * 数据变化时整体替换为新快照，读取方无需加锁，也不需要再访问数据库或调用 Jackson。
+ * items 中的元素在多个请求间共享，调用方不能修改。
+ */
+public record JsonListSnapshot<T>(List<T> items, byte[] json, String etag) {
+
+    /**
+     * @param name 资源名称，作为 ETag 前缀
+     * @param items 列表内容，会被复制为不可变列表
+     * @param objectMapper 用于一次性序列化响应体
+     */
+    public static <T> JsonListSnapshot<T> of(String name, List<T> items, ObjectMapper objectMapper) {
+        List<T> copy = List.copyOf(items);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ApiResponse.success(copy));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + name + " snapshot", ex);
+        }
+        return new JsonListSnapshot<>(copy, json, "\"" + name + "-" + DigestUtils.md5DigestAsHex(json) + "\"");
+    }
+}
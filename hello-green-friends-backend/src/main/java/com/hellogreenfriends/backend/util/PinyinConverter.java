@@ -0,0 +1,89 @@
+package com.hellogreenfriends.backend.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 汉字转拼音工具
+ * 拼音表从 classpath 下的 pinyin/pinyin.txt 加载，不带声调，多音字只取常用读音；
+ * 非汉字字符中的字母和数字原样保留（转小写），其他字符忽略
+ */
+public final class PinyinConverter {
+
+    private static final String RESOURCE = "/pinyin/pinyin.txt";
+
+    private PinyinConverter() {
+    }
+
+    /**
+     * 获取单个汉字的拼音
+     * @return 拼音，不是汉字或拼音表中没有时返回 null
+     */
+    public static String pinyinOf(int codePoint) {
+        return Table.PINYIN.get(codePoint);
+    }
+
+    /**
+     * 转换为连续的全拼，如 "银杏" -> "yinxing"
+     */
+    public static String toPinyin(String text) {
+        return convert(text, false);
+    }
+
+    /**
+     * 转换为拼音首字母，如 "银杏" -> "yx"
+     */
+    public static String toInitials(String text) {
+        return convert(text, true);
+    }
+
+    private static String convert(String text, boolean initialsOnly) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        text.toLowerCase(Locale.ROOT).codePoints().forEach(c -> {
+            String pinyin = pinyinOf(c);
+            if (pinyin != null) {
+                sb.append(initialsOnly ? pinyin.substring(0, 1) : pinyin);
+            } else if (c < 0x80 && Character.isLetterOrDigit(c)) {
+                sb.appendCodePoint(c);
+            }
+        });
+        return sb.toString();
+    }
+
+    // 首次使用时再加载拼音表
+    private static final class Table {
+        private static final Map<Integer, String> PINYIN = load();
+
+        private static Map<Integer, String> load() {
+            Map<Integer, String> table = new HashMap<>(32768);
+            try (InputStream in = PinyinConverter.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Pinyin table not found: " + RESOURCE);
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    int space = line.indexOf(' ');
+                    String pinyin = line.substring(0, space);
+                    line.substring(space + 1).codePoints().forEach(c -> table.put(c, pinyin));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return table;
+        }
+    }
+}
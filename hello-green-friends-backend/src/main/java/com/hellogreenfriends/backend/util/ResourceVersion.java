@@ -0,0 +1,27 @@
+package com.hellogreenfriends.backend.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 条件请求（If-None-Match / If-Modified-Since）使用的资源版本，由轻量的版本探测查询得到
+ * ETag 由最近更新时间（毫秒）和条目数组成，删除条目不会产生新的更新时间，但会改变条目数；
+ * Last-Modified 取同一个时间，HTTP 日期只精确到秒，因此以 ETag 为准
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    /**
+     * @param name 资源名称，作为 ETag 前缀
+     * @param count 资源包含的条目数
+     * @param timestamps 资源各组成部分的更新时间，可以为 null
+     */
+    public static ResourceVersion of(String name, long count, LocalDateTime... timestamps) {
+        long lastModified = -1;
+        for (LocalDateTime timestamp : timestamps) {
+            if (timestamp != null) {
+                lastModified = Math.max(lastModified, timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        return new ResourceVersion("\"" + name + "-" + count + "-" + Math.max(lastModified, 0) + "\"", lastModified);
+    }
+}
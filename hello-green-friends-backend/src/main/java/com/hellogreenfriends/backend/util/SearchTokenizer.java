@@ -0,0 +1,63 @@
+package com.hellogreenfriends.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全文检索分词工具
+ * 连续的字母和数字作为一个词（转小写），连续的中文字符同时切分为单字和相邻两字，
+ * 这样不依赖词典也能匹配 "玉兰"、"白玉兰" 这样的中文名称，同时单字查询也能命中
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 对文本分词，结果保留重复词，用于统计词频
+     * @param text 待分词文本，可为 null
+     * @return 词列表
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String s = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < s.length()) {
+            int c = s.codePointAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < s.length() && isCjk(s.codePointAt(i))) {
+                    i += Character.charCount(s.codePointAt(i));
+                }
+                addCjkTokens(s.substring(start, i), tokens);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < s.length() && !isCjk(s.codePointAt(i)) && Character.isLetterOrDigit(s.codePointAt(i))) {
+                    i += Character.charCount(s.codePointAt(i));
+                }
+                tokens.add(s.substring(start, i));
+            } else {
+                i += Character.charCount(c);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addCjkTokens(String run, List<String> tokens) {
+        int[] chars = run.codePoints().toArray();
+        for (int j = 0; j < chars.length; j++) {
+            tokens.add(new String(chars, j, 1));
+            if (j + 1 < chars.length) {
+                tokens.add(new String(chars, j, 2));
+            }
+        }
+    }
+
+    public static boolean isCjk(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+}
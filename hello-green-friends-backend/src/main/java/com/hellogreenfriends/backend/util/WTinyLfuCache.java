@@ -0,0 +1,357 @@
+package com.hellogreenfriends.backend.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按字节数限制容量的 W-TinyLFU 缓存
+ * 新条目先进入约占 1% 容量的窗口区（LRU），被挤出窗口后进入主区的试用段；
+ * 主区满时用计数草图（count-min sketch）比较候选者与试用段最久未用条目的访问频率，
+ * 频率高者留下。试用段中再次被访问的条目晋升到受保护段（主区的 80%）。
+ * 草图的计数器在累计访问达到阈值后整体减半，使旧的热度逐渐衰减。
+ * 所有方法在对象锁内执行，适合读取远多于写入、单次操作很短的场景。
+ * 条目因容量被淘汰或被主动失效时回调 removalListener（同一键被新值替换时不回调），回调同样在对象锁内执行。
+ */
+public class WTinyLfuCache<K, V> {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private enum Segment {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private long weight;
+        private Segment segment;
+
+        private Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.segment = Segment.WINDOW;
+        }
+    }
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final ToLongFunction<V> weigher;
+    private final FrequencySketch sketch;
+    private final BiConsumer<K, V> removalListener;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    // 三个分段都按访问顺序排列，迭代的第一个元素即最久未使用的条目
+    private final LinkedHashMap<K, Node<K, V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<K, V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<K, V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maximumWeight 所有条目权重之和的上限，单位由 weigher 决定
+     * @param expectedEntries 预计的条目数，用于确定计数草图的大小
+     * @param weigher 计算单个值的权重
+     */
+    public WTinyLfuCache(long maximumWeight, int expectedEntries, ToLongFunction<V> weigher) {
+        this(maximumWeight, expectedEntries, weigher, (key, value) -> { });
+    }
+
+    /**
+     * @param removalListener 条目被淘汰或失效后的回调，不能再访问本缓存
+     */
+    public WTinyLfuCache(long maximumWeight, int expectedEntries, ToLongFunction<V> weigher,
+                         BiConsumer<K, V> removalListener) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_RATIO));
+        this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_RATIO);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(Math.max(16, expectedEntries));
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * 查询缓存，命中时更新该条目在所属分段中的位置
+     * @return 缓存的值，不存在时返回 null
+     */
+    public synchronized V get(K key) {
+        sketch.increment(key.hashCode());
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * 写入或替换一个条目，超过容量时按 W-TinyLFU 规则淘汰
+     * 权重超过整个缓存容量的值不会被缓存，视为写入后立即被淘汰
+     */
+    public synchronized void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        Node<K, V> existing = data.get(key);
+        if (existing != null) {
+            removeNode(existing);
+        }
+        if (weight > maximumWeight) {
+            removalListener.accept(key, value);
+            return;
+        }
+        Node<K, V> node = new Node<>(key, value, weight);
+        data.put(key, node);
+        window.put(key, node);
+        windowWeight += weight;
+        evict();
+    }
+
+    public synchronized void invalidate(K key) {
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            discard(node);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        data.values().forEach(node -> removalListener.accept(node.key, node.value));
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        windowWeight = 0;
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hitCount, missCount, evictionCount, data.size(),
+                windowWeight + probationWeight + protectedWeight, maximumWeight);
+    }
+
+    // 窗口区内只调整 LRU 顺序；试用段的条目晋升到受保护段；受保护段内只调整顺序
+    private void onAccess(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW -> window.get(node.key);
+            case PROTECTED -> protectedSegment.get(node.key);
+            case PROBATION -> {
+                probation.remove(node.key);
+                probationWeight -= node.weight;
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(node.key, node);
+                protectedWeight += node.weight;
+                // 受保护段超出上限时，把其中最久未用的条目降级回试用段
+                while (protectedWeight > protectedMaximum && protectedSegment.size() > 1) {
+                    Node<K, V> demoted = pollFirst(protectedSegment);
+                    protectedWeight -= demoted.weight;
+                    demoted.segment = Segment.PROBATION;
+                    probation.put(demoted.key, demoted);
+                    probationWeight += demoted.weight;
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        // 窗口区超限时，把最久未用的条目移入试用段，作为进入主区的候选者
+        while (windowWeight > windowMaximum && window.size() > 1) {
+            Node<K, V> candidate = pollFirst(window);
+            windowWeight -= candidate.weight;
+            candidate.segment = Segment.PROBATION;
+            probation.put(candidate.key, candidate);
+            probationWeight += candidate.weight;
+            evictFromMain(candidate);
+        }
+        // 仍然超限时（例如单个大条目），依次从试用段、受保护段、窗口区淘汰
+        while (totalWeight() > maximumWeight) {
+            Node<K, V> victim = firstOf(probation);
+            if (victim == null) {
+                victim = firstOf(protectedSegment);
+            }
+            if (victim == null) {
+                victim = firstOf(window);
+            }
+            if (victim == null) {
+                break;
+            }
+            discard(victim);
+            evictionCount++;
+        }
+    }
+
+    // 主区超限时，候选者与试用段中最久未用的条目比较频率，频率低的一方被淘汰
+    private void evictFromMain(Node<K, V> candidate) {
+        while (totalWeight() > maximumWeight && data.containsKey(candidate.key)) {
+            Node<K, V> victim = firstOf(probation);
+            if (victim == candidate) {
+                victim = secondOf(probation);
+            }
+            if (victim == null) {
+                victim = firstOf(protectedSegment);
+            }
+            if (victim == null) {
+                discard(candidate);
+                evictionCount++;
+                return;
+            }
+            if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                discard(victim);
+            } else {
+                discard(candidate);
+            }
+            evictionCount++;
+        }
+    }
+
+    // 移除条目并通知监听者，替换同一键的旧值时直接调用 removeNode
+    private void discard(Node<K, V> node) {
+        removeNode(node);
+        removalListener.accept(node.key, node.value);
+    }
+
+    private void removeNode(Node<K, V> node) {
+        data.remove(node.key);
+        switch (node.segment) {
+            case WINDOW -> {
+                window.remove(node.key);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> {
+                probation.remove(node.key);
+                probationWeight -= node.weight;
+            }
+            case PROTECTED -> {
+                protectedSegment.remove(node.key);
+                protectedWeight -= node.weight;
+            }
+        }
+    }
+
+    private long totalWeight() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    private static <K, V> Node<K, V> firstOf(LinkedHashMap<K, Node<K, V>> segment) {
+        Iterator<Node<K, V>> it = segment.values().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private static <K, V> Node<K, V> secondOf(LinkedHashMap<K, Node<K, V>> segment) {
+        Iterator<Node<K, V>> it = segment.values().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        it.next();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private static <K, V> Node<K, V> pollFirst(LinkedHashMap<K, Node<K, V>> segment) {
+        Iterator<Node<K, V>> it = segment.values().iterator();
+        Node<K, V> node = it.next();
+        it.remove();
+        return node;
+    }
+
+    /**
+     * 缓存统计
+     * @param hitCount 命中次数
+     * @param missCount 未命中次数
+     * @param evictionCount 因容量不足被淘汰的条目数（不含主动失效）
+     * @param entryCount 当前条目数
+     * @param weightedSize 当前权重之和
+     * @param maximumWeight 权重上限
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, int entryCount,
+                        long weightedSize, long maximumWeight) {
+
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0 : (double) hitCount / requests;
+        }
+    }
+
+    /**
+     * 4 行的 count-min sketch，每个计数器 4 位（上限 15），16 个计数器打包在一个 long 中
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0x97cb3127L, 0xab1c7b5dL, 0xc2b2ae3dL, 0x27d4eb2fL
+        };
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int expectedEntries) {
+            int size = Integer.highestOneBit(Math.min(expectedEntries, 1 << 24) - 1) << 1;
+            this.table = new long[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * size;
+        }
+
+        private int frequency(int hash) {
+            int min = 15;
+            for (int row = 0; row < 4; row++) {
+                int index = indexOf(hash, row);
+                int offset = counterOffset(hash, row);
+                min = Math.min(min, (int) ((table[index] >>> offset) & 0xfL));
+            }
+            return min;
+        }
+
+        private void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                int index = indexOf(hash, row);
+                int offset = counterOffset(hash, row);
+                if (((table[index] >>> offset) & 0xfL) < 15) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        // 所有计数器减半，让过去的热度随时间衰减
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        // 每行使用 long 中不同的 4 个计数器槽位
+        private static int counterOffset(int hash, int row) {
+            int slot = ((hash >>> (row * 8)) & 3) + (row << 2);
+            return slot << 2;
+        }
+    }
+}
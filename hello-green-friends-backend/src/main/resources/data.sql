@@ -67,29 +67,29 @@ MERGE INTO plants (id, name, scientific_name, description, flowering_period, sta
 (13, '垂柳', 'Salix babylonica', '枝条细长，柔软下垂，随风飘舞，姿态优美。常栽于河岸、湖边，是典型的水边绿化树种。', '春季', 'PUBLISHED', 2, NOW(), NOW()),
 (14, '雪松', 'Cedrus deodara', '世界著名的观赏树种之一。树冠塔形，枝叶层层伸展，姿态雄伟，气势磅礴。', '10-11月', 'PUBLISHED', 1, NOW(), NOW()),
 (15, '茶花', 'Camellia japonica', '中国传统观赏花卉，“十大名花”中排名第八。花瓣为碗形，分单瓣或重瓣，色彩丰富，姿态优美。', '1-3月', 'PUBLISHED', 2, NOW(), NOW()),
-(16, '待审核的薄荷', 'Mentha', '这是一个待审核的植物条目，不应出现在公共图鉴页。', '7-9月', 'PENDING_REVIEW', 1, NOW(), NOW()),
+(16, '待审核的薄荷', 'Mentha', '这是一个待审核的植物条目，不应出现在公共图鉴页。', '7-9月', 'PENDING_REVIEW', 1, NOW(), NOW());
 
 
 -- -----------------------------------------------------------------
 --  5. 插入植物与地点的关联关系
 -- -----------------------------------------------------------------
-MERGE INTO plant_locations (plant_id, location_id) KEY(plant_id, location_id) VALUES
-(1, 4), (1, 9),                               -- 银杏
-(2, 7), (2, 11), (2, 13),                      -- 樟树
-(3, 2), (3, 5),                                -- 杜鹃
-(4, 1), (4, 10),                               -- 月季
-(5, 3), (5, 6),                                -- 日本晚樱
-(6, 2), (6, 10), (6, 12),                      -- 桂花
-(7, 5), (7, 8),                                -- 红枫
-(8, 1), (8, 7),                                -- 广玉兰
-(9, 3), (9, 5),                                -- 海棠
-(10, 9), (10, 11),                             -- 香樟
-(11, 6), (11, 12),                             -- 紫薇
-(12, 4), (12, 11), (12, 13),                   -- 法国梧桐
-(13, 8),                                       -- 垂柳
-(14, 2), (14, 7),                              -- 雪松
-(15, 10),                                      -- 茶花
-(16, 4),                                       -- 待审核的薄荷
+MERGE INTO plant_locations (id, plant_id, location_id) KEY(id) VALUES
+(1, 1, 4), (2, 1, 9),                           -- 银杏
+(3, 2, 7), (4, 2, 11), (5, 2, 13),              -- 樟树
+(6, 3, 2), (7, 3, 5),                           -- 杜鹃
+(8, 4, 1), (9, 4, 10),                          -- 月季
+(10, 5, 3), (11, 5, 6),                         -- 日本晚樱
+(12, 6, 2), (13, 6, 10), (14, 6, 12),           -- 桂花
+(15, 7, 5), (16, 7, 8),                         -- 红枫
+(17, 8, 1), (18, 8, 7),                         -- 广玉兰
+(19, 9, 3), (20, 9, 5),                         -- 海棠
+(21, 10, 9), (22, 10, 11),                      -- 香樟
+(23, 11, 6), (24, 11, 12),                      -- 紫薇
+(25, 12, 4), (26, 12, 11), (27, 12, 13),        -- 法国梧桐
+(28, 13, 8),                                    -- 垂柳
+(29, 14, 2), (30, 14, 7),                       -- 雪松
+(31, 15, 10),                                   -- 茶花
+(32, 16, 4);                                    -- 待审核的薄荷
 
 
 -- -----------------------------------------------------------------
@@ -127,4 +127,4 @@ MERGE INTO plant_tags (plant_id, tag_id) KEY(plant_id, tag_id) VALUES
 -- 茶花 (常绿, 春季开花, 观花, 灌木)
 (15, 1), (15, 3), (15, 6), (15, 9),
 -- 待审核的薄荷 (草本, 香花)
-(16, 10), (16, 11),
\ No newline at end of file
+(16, 10), (16, 11);
@@ -0,0 +1,79 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.util.FloweringPeriodParser;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * 花期文本和花期筛选参数的解析结果，每行为输入文本和期望的月份
+ */
+class FloweringPeriodParserTests {
+
+	static Stream<Arguments> floweringPeriods() {
+		return Stream.of(
+				arguments("4-5月", months(4, 5)),
+				arguments("4月-5月", months(4, 5)),
+				arguments("9月至11月", months(9, 10, 11)),
+				arguments("11-2月", months(11, 12, 1, 2)),
+				arguments("3月中旬至5月", months(3, 4, 5)),
+				arguments("4月上旬到6月下旬", months(4, 5, 6)),
+				arguments("十一月至次年二月", months(11, 12, 1, 2)),
+				arguments("12月~次年3月", months(12, 1, 2, 3)),
+				arguments("三四月", months(3, 4)),
+				arguments("三、四月", months(3, 4)),
+				arguments("十一十二月", months(11, 12)),
+				arguments("3、4、5月", months(3, 4, 5)),
+				arguments("十月", months(10)),
+				arguments("春季", months(3, 4, 5)),
+				arguments("全年", months(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)),
+				arguments("April-June", months(4, 5, 6)),
+				arguments("Mar., Apr.", months(3, 4)),
+				arguments("sep-oct", months(9, 10)),
+				arguments("花期约10天", months()),
+				arguments("花期2-3周", months()),
+				arguments("deciduous shrub", months()),
+				arguments("4", months()),
+				arguments("", months()),
+				arguments(null, months())
+		);
+	}
+
+	static Stream<Arguments> filterPeriods() {
+		return Stream.of(
+				arguments("4", months(4)),
+				arguments("12", months(12)),
+				arguments("4-5", months(4, 5)),
+				arguments("11-2", months(11, 12, 1, 2)),
+				arguments("4-5月", months(4, 5)),
+				arguments("夏秋", months(6, 7, 8, 9, 10, 11)),
+				arguments("13", months()),
+				arguments("abc", months())
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("floweringPeriods")
+	void parsesFloweringPeriodText(String text, int expectedMask) {
+		assertThat(FloweringPeriodParser.parse(text)).isEqualTo(expectedMask);
+	}
+
+	@ParameterizedTest
+	@MethodSource("filterPeriods")
+	void parsesFilterParameter(String text, int expectedMask) {
+		assertThat(FloweringPeriodParser.parseFilter(text)).isEqualTo(expectedMask);
+	}
+
+	private static int months(int... months) {
+		int mask = 0;
+		for (int month : months) {
+			mask |= 1 << (month - 1);
+		}
+		return mask;
+	}
+}
@@ -0,0 +1,84 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.security.JwtTokenProvider;
+import com.hellogreenfriends.backend.security.UserAccountDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求认证令牌的开销
+ * legacyPerRequest 复现改动前的做法：每次解码密钥、新建解析器，并且验证和取用户名各解析一次；
+ * uncachedVerify 使用共享的密钥和解析器单次验证；cachedVerify 命中已验证声明的缓存。
+ * 运行：mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test，
+ * 然后 java -cp "target/test-classes:target/classes:$(cat cp.txt)" org.openjdk.jmh.Main JwtAuthenticationBenchmark，
+ * 也可以在 IDE 中直接运行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+	private static final String SECRET = "aGVsbG8tZ3JlZW4tZnJpZW5kcy1iZW5jaG1hcmstc2VjcmV0LWtleS1mb3ItaHM1MTItc2lnbmluZy0wMTIzNDU2Nzg5";
+
+	private JwtTokenProvider cachingProvider;
+	private JwtTokenProvider uncachedProvider;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		cachingProvider = new JwtTokenProvider(SECRET, 3_600_000, 10_000);
+		uncachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 0);
+
+		User user = new User();
+		user.setId(42);
+		user.setUsername("benchmark");
+		user.setPasswordHash("unused");
+		UserAccountDetails details = new UserAccountDetails(user);
+		token = cachingProvider.generateToken(
+				new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+	}
+
+	@Benchmark
+	public String legacyPerRequest() {
+		Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+				.parseSignedClaims(token);
+		return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+				.parseSignedClaims(token).getPayload().getSubject();
+	}
+
+	@Benchmark
+	public Claims uncachedVerify() {
+		return uncachedProvider.parseValidClaims(token);
+	}
+
+	@Benchmark
+	public Claims cachedVerify() {
+		return cachingProvider.parseValidClaims(token);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtAuthenticationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
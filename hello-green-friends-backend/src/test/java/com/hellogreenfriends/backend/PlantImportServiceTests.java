@@ -0,0 +1,110 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.dto.PlantImportErrorDTO;
+import com.hellogreenfriends.backend.dto.PlantImportResultDTO;
+import com.hellogreenfriends.backend.service.PlantImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量导入：CSV 引号字段的解析、NDJSON 的逐行解析，以及某一批中个别行写入失败时其余行仍能导入
+ */
+@SpringBootTest(properties = "app.import.chunk-size=3")
+class PlantImportServiceTests {
+
+	@Autowired
+	private PlantImportService plantImportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void csvQuotedFieldsKeepCommasQuotesAndNewlines() throws Exception {
+		String csv = "\uFEFFname,description,status,tagIds,locations\n"
+				+ "导入测试-CSV-1,\"含逗号, 和 \"\"引号\"\" 的简介\",PUBLISHED,1;3,\"天赐庄北区|导入测试-CSV地点|10|20\"\n"
+				+ "\"导入测试-CSV-2\",\"第一行\n第二行\",,,\n"
+				+ "导入测试-CSV-3,,UNKNOWN,,\n";
+
+		PlantImportResultDTO result = plantImportService.importPlants(stream(csv), PlantImportService.Format.CSV, 1);
+
+		assertThat(result.getTotalRows()).isEqualTo(3);
+		assertThat(result.getImportedCount()).isEqualTo(2);
+		assertThat(result.getFailedCount()).isEqualTo(1);
+		assertThat(result.getCreatedLocations()).isEqualTo(1);
+		// 第二条记录跨两行，第三条记录从第 5 行开始
+		assertThat(result.getErrors()).extracting(PlantImportErrorDTO::getLine).containsExactly(5L);
+
+		assertThat(descriptionOf("导入测试-CSV-1")).isEqualTo("含逗号, 和 \"引号\" 的简介");
+		assertThat(descriptionOf("导入测试-CSV-2")).isEqualTo("第一行\n第二行");
+		assertThat(tagCountOf("导入测试-CSV-1")).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM plant_locations pl JOIN plants p ON p.id = pl.plant_id "
+						+ "JOIN locations l ON l.id = pl.location_id WHERE p.name = ? AND l.specific_name = ?",
+				Integer.class, "导入测试-CSV-1", "导入测试-CSV地点")).isEqualTo(1);
+	}
+
+	@Test
+	void ndjsonRowsAreImportedAndInvalidLinesReported() throws Exception {
+		String ndjson = "{\"name\":\"导入测试-JSON-1\",\"description\":\"简介\",\"tagIds\":[2]}\n"
+				+ "{\"name\":\"导入测试-JSON-坏\",\n"
+				+ "\n"
+				+ "{\"name\":\"导入测试-JSON-2\",\"tagIds\":[999999]}\n"
+				+ "{\"name\":\"导入测试-JSON-3\",\"locations\":[{\"areaName\":\"天赐庄北区\",\"specificName\":\"图书馆前\"}]}\n";
+
+		PlantImportResultDTO result = plantImportService.importPlants(stream(ndjson), PlantImportService.Format.NDJSON, 1);
+
+		assertThat(result.getTotalRows()).isEqualTo(4);
+		assertThat(result.getImportedCount()).isEqualTo(2);
+		assertThat(result.getCreatedLocations()).isZero();
+		assertThat(result.getErrors()).extracting(PlantImportErrorDTO::getLine).containsExactly(2L, 4L);
+
+		assertThat(descriptionOf("导入测试-JSON-1")).isEqualTo("简介");
+		assertThat(tagCountOf("导入测试-JSON-1")).isEqualTo(1);
+		assertThat(plantCountOf("导入测试-JSON-3")).isEqualTo(1);
+	}
+
+	@Test
+	void oneBadRowDoesNotLoseItsChunk() throws Exception {
+		// 名称超过列长度，校验能通过，写入数据库时才失败，导致所在的整批回滚
+		String tooLong = "导".repeat(300);
+		String ndjson = "{\"name\":\"导入测试-批次-1\"}\n"
+				+ "{\"name\":\"" + tooLong + "\"}\n"
+				+ "{\"name\":\"导入测试-批次-3\"}\n"
+				+ "{\"name\":\"导入测试-批次-4\"}\n";
+
+		PlantImportResultDTO result = plantImportService.importPlants(stream(ndjson), PlantImportService.Format.NDJSON, 1);
+
+		assertThat(result.getImportedCount()).isEqualTo(3);
+		assertThat(result.getFailedCount()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(PlantImportErrorDTO::getLine).containsExactly(2L);
+		assertThat(plantCountOf("导入测试-批次-1")).isEqualTo(1);
+		assertThat(plantCountOf("导入测试-批次-3")).isEqualTo(1);
+		assertThat(plantCountOf("导入测试-批次-4")).isEqualTo(1);
+	}
+
+	private String descriptionOf(String name) {
+		return jdbcTemplate.queryForObject("SELECT description FROM plants WHERE name = ?", String.class, name);
+	}
+
+	private int tagCountOf(String name) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM plant_tags pt JOIN plants p ON p.id = pt.plant_id WHERE p.name = ?",
+				Integer.class, name);
+	}
+
+	private int plantCountOf(String name) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM plants WHERE name = ?", Integer.class, name);
+	}
+
+	private static InputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
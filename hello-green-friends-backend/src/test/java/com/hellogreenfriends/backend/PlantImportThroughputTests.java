@@ -0,0 +1,62 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.dto.PlantImportResultDTO;
+import com.hellogreenfriends.backend.service.PlantImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量导入的吞吐量：导入 10000 行 NDJSON 并记录每秒导入的行数
+ * 耗时较长，默认跳过，运行：mvn test -Dtest=PlantImportThroughputTests -Dimport.throughput=true
+ */
+@SpringBootTest
+@DirtiesContext
+@EnabledIfSystemProperty(named = "import.throughput", matches = "true")
+class PlantImportThroughputTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(PlantImportThroughputTests.class);
+
+	private static final int ROWS = 10_000;
+
+	@Autowired
+	private PlantImportService plantImportService;
+
+	@Test
+	void importsTenThousandNdjsonRows() throws Exception {
+		byte[] body = ndjson(ROWS);
+
+		long start = System.nanoTime();
+		PlantImportResultDTO result = plantImportService.importPlants(
+				new ByteArrayInputStream(body), PlantImportService.Format.NDJSON, 1);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		logger.info("Imported {} rows in {} s: {} rows/s", result.getImportedCount(),
+				String.format("%.2f", seconds), Math.round(result.getImportedCount() / seconds));
+		assertThat(result.getImportedCount()).isEqualTo(ROWS);
+		assertThat(result.getFailedCount()).isZero();
+	}
+
+	// 每行带两个标签和一个地点，地点共 100 个，第一次出现时新建
+	private static byte[] ndjson(int rows) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 1; i <= rows; i++) {
+			sb.append("{\"name\":\"吞吐量测试-").append(i)
+					.append("\",\"scientificName\":\"Plantae throughput ").append(i)
+					.append("\",\"description\":\"批量导入吞吐量测试数据，第 ").append(i).append(" 行\"")
+					.append(",\"floweringPeriod\":\"4-5月\",\"status\":\"PUBLISHED\",\"tagIds\":[1,3]")
+					.append(",\"locations\":[{\"areaName\":\"天赐庄北区\",\"specificName\":\"吞吐量测试地点-")
+					.append(i % 100).append("\"}]}\n");
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,95 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.dto.PlantCreateDTO;
+import com.hellogreenfriends.backend.service.PlantService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 验证创建植物时地点的写入语句数与提交的地点数量无关：
+ * 一次地点查询、一批地点插入、一批关联插入
+ */
+@SpringBootTest
+class PlantLocationBatchTests {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private PlantService plantService;
+
+	@Test
+	void statementCountDoesNotGrowWithLocationCount() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		// 预热：首次使用时序列会多执行一次取值
+		statementsToCreatePlant(statistics, 1, "warmup");
+
+		long few = fewestStatementsToCreatePlant(statistics, 1, "few");
+		long many = fewestStatementsToCreatePlant(statistics, 10, "many");
+
+		assertThat(few).isPositive();
+		assertThat(many).isEqualTo(few);
+	}
+
+	// 序列每 50 个ID取一次值，可能恰好落在某次创建中，取两次中的较小值排除这一次额外的语句
+	private long fewestStatementsToCreatePlant(Statistics statistics, int locationCount, String name) {
+		return Math.min(statementsToCreatePlant(statistics, locationCount, name + "-1"),
+				statementsToCreatePlant(statistics, locationCount, name + "-2"));
+	}
+
+	// 提交 locationCount 个已有地点和 locationCount 个新地点，在回滚前刷新，返回准备的 SQL 语句数
+	private long statementsToCreatePlant(Statistics statistics, int locationCount, String name) {
+		PlantCreateDTO dto = new PlantCreateDTO();
+		dto.setName("批量测试-" + name);
+		dto.setLocations(locations(locationCount, name));
+		return transactionTemplate.execute(status -> {
+			long before = statistics.getPrepareStatementCount();
+			plantService.createPlant(dto, null, 1);
+			entityManager.flush();
+			long statements = statistics.getPrepareStatementCount() - before;
+			status.setRollbackOnly();
+			return statements;
+		});
+	}
+
+	private static List<PlantCreateDTO.LocationInfo> locations(int count, String name) {
+		List<PlantCreateDTO.LocationInfo> locations = new ArrayList<>();
+		String[][] existing = {
+				{"天赐庄北区", "图书馆前"}, {"天赐庄西区", "物科楼西侧"}, {"天赐庄南区", "钟楼周边"},
+				{"天赐庄中部", "情人坡东侧"}, {"天赐庄北区", "梅花食堂门前"}, {"天赐庄中部", "体操房旁"},
+				{"天赐庄南区", "法学院东侧河道"}, {"天赐庄南区", "敬贤堂门前"}, {"天赐庄北区", "理工楼北侧"},
+				{"天赐庄东区", "校医院门前草坪"}
+		};
+		for (int i = 0; i < count; i++) {
+			locations.add(location(existing[i][0], existing[i][1]));
+			locations.add(location("天赐庄北区", "批量测试-" + name + "-" + i));
+		}
+		return locations;
+	}
+
+	private static PlantCreateDTO.LocationInfo location(String areaName, String specificName) {
+		PlantCreateDTO.LocationInfo location = new PlantCreateDTO.LocationInfo();
+		location.setAreaName(areaName);
+		location.setSpecificName(specificName);
+		location.setMapCoordX(100f);
+		location.setMapCoordY(100f);
+		return location;
+	}
+}
@@ -0,0 +1,109 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.entity.User;
+import com.hellogreenfriends.backend.repository.LocationRepository;
+import com.hellogreenfriends.backend.repository.TagRepository;
+import com.hellogreenfriends.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 验证 Tag、Location、User 的二级缓存和查询缓存：
+ * 同样的查询在第二个事务（相当于第二个请求）中不再执行 SQL
+ */
+@SpringBootTest
+class SecondLevelCacheTests {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TagRepository tagRepository;
+
+	@Autowired
+	private LocationRepository locationRepository;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findByUsernameRunsNoSqlOnceCached() {
+		long first = statementsIn(() -> userRepository.findByUsername("admin"));
+		long second = statementsIn(() -> userRepository.findByUsername("admin"));
+
+		assertThat(first).isPositive();
+		assertThat(second).isZero();
+		assertThat(statistics.getQueryCacheHitCount()).isPositive();
+		assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isPositive();
+	}
+
+	@Test
+	void findTagsByIdRunsNoSqlOnceCached() {
+		List<Integer> ids = List.of(1, 2, 3);
+		long first = statementsIn(() -> tagRepository.findAllById(ids));
+		long second = statementsIn(() -> tagRepository.findAllById(ids));
+
+		assertThat(first).isPositive();
+		assertThat(second).isZero();
+		assertThat(statistics.getDomainDataRegionStatistics("tags").getHitCount()).isPositive();
+	}
+
+	@Test
+	void findLocationByNameRunsNoSqlOnceCached() {
+		long first = statementsIn(() -> locationRepository.findByAreaNameAndSpecificName("天赐庄北区", "图书馆前"));
+		long second = statementsIn(() -> locationRepository.findByAreaNameAndSpecificName("天赐庄北区", "图书馆前"));
+
+		assertThat(first).isPositive();
+		assertThat(second).isZero();
+	}
+
+	@Test
+	void updatingUserIsVisibleThroughCachedQuery() {
+		transactionTemplate.executeWithoutResult(status -> userRepository.findByUsername("user1"));
+		String original = transactionTemplate.execute(status -> userRepository.findByUsername("user1")
+				.map(User::getNickname).orElseThrow());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			User user = userRepository.findByUsername("user1").orElseThrow();
+			user.setNickname(original + "-updated");
+		});
+		try {
+			String updated = transactionTemplate.execute(status -> userRepository.findByUsername("user1")
+					.map(User::getNickname).orElseThrow());
+			assertThat(updated).isEqualTo(original + "-updated");
+		} finally {
+			transactionTemplate.executeWithoutResult(status ->
+					userRepository.findByUsername("user1").orElseThrow().setNickname(original));
+		}
+	}
+
+	// 在独立事务中执行，返回期间准备的 SQL 语句数
+	private long statementsIn(Runnable work) {
+		long before = statistics.getPrepareStatementCount();
+		transactionTemplate.executeWithoutResult(status -> work.run());
+		return statistics.getPrepareStatementCount() - before;
+	}
+}
@@ -0,0 +1,158 @@
+package com.hellogreenfriends.backend;
+
+import com.hellogreenfriends.backend.aspect.SingleFlightAspect;
+import com.hellogreenfriends.backend.dto.InFlightCallDTO;
+import com.hellogreenfriends.backend.dto.PlantFilterDTO;
+import com.hellogreenfriends.backend.dto.PlantSummaryDTO;
+import com.hellogreenfriends.backend.dto.SingleFlightStatsDTO;
+import com.hellogreenfriends.backend.service.PlantService;
+import jakarta.persistence.EntityManagerFactory;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 模拟新植物发布后大量用户同时刷新图鉴：整群并发调用 PlantService 的相同请求只执行一次数据库查询
+ */
+@SpringBootTest
+class SingleFlightTests {
+
+	private static final int HERD_SIZE = 32;
+	private static final String METHOD = "PlantService.getPublishedPlants";
+
+	@Autowired
+	private PlantService plantService;
+
+	@Autowired
+	private SingleFlightAspect singleFlightAspect;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SlowLeader slowLeader;
+
+	@Test
+	void concurrentIdenticalCallsRunQueriesOnce() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		PlantFilterDTO filter = new PlantFilterDTO();
+		// 按名称排序时不走内存索引，每次调用都会查询数据库
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+
+		plantService.getPublishedPlants(filter, pageable);
+		long before = statistics.getPrepareStatementCount();
+		plantService.getPublishedPlants(filter, pageable);
+		long statementsPerCall = statistics.getPrepareStatementCount() - before;
+		SingleFlightStatsDTO warmUp = statsOf(METHOD);
+
+		ExecutorService pool = Executors.newFixedThreadPool(HERD_SIZE);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Page<PlantSummaryDTO>>> futures = new ArrayList<>();
+		for (int i = 0; i < HERD_SIZE; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				return plantService.getPublishedPlants(filter, pageable);
+			}));
+		}
+		slowLeader.arm();
+		before = statistics.getPrepareStatementCount();
+		start.countDown();
+		List<Page<PlantSummaryDTO>> results = new ArrayList<>();
+		try {
+			for (Future<Page<PlantSummaryDTO>> future : futures) {
+				results.add(future.get(30, TimeUnit.SECONDS));
+			}
+		} finally {
+			slowLeader.disarm();
+			pool.shutdown();
+		}
+		long herdStatements = statistics.getPrepareStatementCount() - before;
+
+		assertThat(statementsPerCall).isPositive();
+		assertThat(herdStatements).isEqualTo(statementsPerCall);
+		assertThat(results).allSatisfy(page -> assertThat(page).isSameAs(results.get(0)));
+
+		SingleFlightStatsDTO stats = statsOf(METHOD);
+		assertThat(stats.getExecutions() - warmUp.getExecutions()).isEqualTo(1);
+		assertThat(stats.getCoalesced() - warmUp.getCoalesced()).isEqualTo(HERD_SIZE - 1);
+		assertThat(stats.getInFlight()).isEmpty();
+	}
+
+	private SingleFlightStatsDTO statsOf(String method) {
+		return singleFlightAspect.getStats().stream()
+				.filter(s -> s.getMethod().contains(method))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	@TestConfiguration
+	static class SlowLeaderConfig {
+
+		@Bean
+		SlowLeader slowLeader(SingleFlightAspect singleFlightAspect) {
+			return new SlowLeader(singleFlightAspect);
+		}
+	}
+
+	/**
+	 * 位于合并切面之内，只有真正执行方法的调用才会经过这里：
+	 * 启用后让执行者等到其余调用都在等待后再查询数据库，保证整群请求确实是并发到达的。
+	 * 去掉 PlantService 上的 @SingleFlight 时每个调用都会各自查询，测试随之失败。
+	 */
+	@Aspect
+	static class SlowLeader {
+
+		private final SingleFlightAspect singleFlightAspect;
+		private volatile boolean armed;
+
+		SlowLeader(SingleFlightAspect singleFlightAspect) {
+			this.singleFlightAspect = singleFlightAspect;
+		}
+
+		void arm() {
+			armed = true;
+		}
+
+		void disarm() {
+			armed = false;
+		}
+
+		@Around("execution(* com.hellogreenfriends.backend.service.PlantService.getPublishedPlants(..))")
+		public Object holdLeader(ProceedingJoinPoint joinPoint) throws Throwable {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (armed && waiters() < HERD_SIZE - 1 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			return joinPoint.proceed();
+		}
+
+		private int waiters() {
+			return singleFlightAspect.getStats().stream()
+					.filter(s -> s.getMethod().contains(METHOD))
+					.flatMap(s -> s.getInFlight().stream())
+					.mapToInt(InFlightCallDTO::getWaiters)
+					.sum();
+		}
+	}
+}